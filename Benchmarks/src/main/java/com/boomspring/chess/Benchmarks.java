@@ -0,0 +1,21 @@
+package com.boomspring.chess;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public final class Benchmarks
+{
+    private Benchmarks()
+    {
+    }
+
+    public static final void main(final String... args) throws RunnerException, CommandLineOptionException
+    {
+        // THROUGHPUT ALONGSIDE ALLOCATION RATE, ANY JMH OPTION CAN BE PASSED ON TOP
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build()).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.boomspring.chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class Evaluation
+{
+    @Param({"start", "kiwipete", "middlegame", "endgame"})
+    private String position;
+
+    private Board board;
+    private PawnTable pawns;
+
+    @Setup
+    public void setup()
+    {
+        board = new Board(Positions.get(position));
+        pawns = new PawnTable(Node.PAWN_ENTRIES);
+    }
+
+    @Benchmark
+    public int boardValue()
+    {
+        // THE SAME PATH AS THE SEARCH, SO THE PAWN STRUCTURE COMES FROM THE CACHE AFTER THE FIRST CALL
+        return board.calculateValue(pawns);
+    }
+}
\ No newline at end of file
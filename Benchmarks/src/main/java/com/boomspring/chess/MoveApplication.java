@@ -0,0 +1,60 @@
+package com.boomspring.chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoveApplication
+{
+    @Param({"start", "kiwipete", "middlegame", "endgame"})
+    private String position;
+
+    private Game game;
+    private Game.Turn turn;
+    private Board board;
+    private int[] moves;
+
+    @Setup
+    public void setup()
+    {
+        game = Positions.getGame(position);
+        turn = game.getCurrentTurn();
+        board = new Board(Positions.get(position));
+        moves = board.getMoves();
+    }
+
+    @Benchmark
+    public void newTurn(final Blackhole blackhole)
+    {
+        for (final int move : moves)
+        {
+            blackhole.consume(game.new Turn(turn, Move.getFrom(move), Move.getTo(move)));
+        }
+    }
+
+    @Benchmark
+    public long makeUnmake()
+    {
+        long keys = 0;
+
+        for (final int move : moves)
+        {
+            board.makeMove(move);
+            keys ^= board.getKey();
+            board.unmakeMove();
+        }
+
+        return keys;
+    }
+}
\ No newline at end of file
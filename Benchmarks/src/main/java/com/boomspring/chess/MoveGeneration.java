@@ -0,0 +1,46 @@
+package com.boomspring.chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoveGeneration
+{
+    @Param({"start", "kiwipete", "middlegame", "endgame"})
+    private String position;
+
+    private Game game;
+    private Game.Turn turn;
+    private Board board;
+
+    @Setup
+    public void setup()
+    {
+        game = Positions.getGame(position);
+        turn = game.getCurrentTurn();
+        board = new Board(Positions.get(position));
+    }
+
+    @Benchmark
+    public void potentialTurns(final Blackhole blackhole)
+    {
+        turn.getPotentialTurns(game.getCurrentPlayer()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public int[] boardMoves()
+    {
+        return board.getMoves();
+    }
+}
\ No newline at end of file
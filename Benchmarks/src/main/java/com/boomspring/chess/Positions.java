@@ -0,0 +1,28 @@
+package com.boomspring.chess;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public final class Positions
+{
+    // FIXED POSITIONS SO RESULTS ARE COMPARABLE BETWEEN ENGINE CHANGES
+    private static final ImmutableMap<String, String> FENS = ImmutableMap.of(
+        "start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+
+    private Positions()
+    {
+    }
+
+    protected static final Position get(final String name)
+    {
+        return new Position(FENS.get(name));
+    }
+
+    protected static final Game getGame(final String name)
+    {
+        return new Game(name, ImmutableList.of(new Player.AI(Colour.BLACK, 1), new Player.AI(Colour.WHITE, 1)), get(name));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.boomspring.chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// EACH SEARCH IS TIMED ON ITS OWN, SO THE RESET BETWEEN SEARCHES SITS OUTSIDE THE MEASUREMENT
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 200)
+@Measurement(iterations = 1000)
+public class Searching
+{
+    @Param({"start", "kiwipete", "middlegame", "endgame"})
+    private String position;
+
+    @Param({"2", "3"})
+    private int depth;
+
+    private final TranspositionTable table = new TranspositionTable(1);
+    private Node node;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        // ONE NODE PER TRIAL, SO ITS PICKERS AND PAWN CACHE ARE NOT COUNTED AS SEARCH ALLOCATION
+        node = new Node(Positions.get(position), table);
+    }
+
+    @Setup(Level.Iteration)
+    public void clear()
+    {
+        // EVERY SEARCH STARTS FROM AN EMPTY TABLE AND NO LEARNED ORDERING
+        table.clear();
+        node.clear();
+    }
+
+    @Benchmark
+    public Node.Result node()
+    {
+        return node.search(depth, 0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,532 @@
+package com.boomspring.chess;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public final class Board
+{
+    private static final int[] CASTLING_MASK = IntStream.range(0, 64).map(i -> { switch(i) {
+        case 0: return ~0b0010;
+        case 4: return ~0b0011;
+        case 7: return ~0b0001;
+        case 56: return ~0b1000;
+        case 60: return ~0b1100;
+        case 63: return ~0b0100;
+        default: return ~0;
+    }}).toArray();
+
+    protected static final int MAX_MOVES = 256;
+    protected static final int CAPTURES = 1;
+    protected static final int QUIETS = 2;
+    protected static final int ALL = CAPTURES | QUIETS;
+
+    private final long[] pieces = new long[12];
+    private final int[] squares = new int[64];
+    private final int[] kings = new int[2];
+    private int[] moves;
+    private long[] history;
+    private long[] keys;
+    private final int[] scratch = new int[MAX_MOVES];
+    private Colour side;
+    private int castling;
+    private int enPassant;
+    private int halfMoves;
+    private int fullMoves;
+    private int ply;
+    private long key;
+    private long pawnKey;
+    private int middlegame;
+    private int endgame;
+    private int phase;
+
+    protected Board(final Position position)
+    {
+        Arrays.fill(squares, Position.EMPTY);
+
+        for (int code = 0; code < 12; code++)
+        {
+            for (long bits = position.getPieces(Position.getColour(code), Position.getKind(code)); bits != 0; bits &= bits - 1)
+            {
+                add(code, Long.numberOfTrailingZeros(bits));
+            }
+        }
+
+        this.side = position.getSide();
+        this.castling = position.getCastling();
+        this.enPassant = position.getEnPassant();
+        this.halfMoves = position.getHalfMoves();
+        this.fullMoves = position.getFullMoves();
+
+        // EARLIER POSITIONS OF THE GAME FOR REPETITION DETECTION
+        final long[] previous = position.getKeys();
+        this.moves = new int[previous.length + Node.MAX_PLY];
+        this.history = new long[previous.length + Node.MAX_PLY];
+        this.keys = Arrays.copyOf(previous, previous.length + Node.MAX_PLY);
+
+        this.ply = previous.length;
+        this.key ^= Zobrist.getCastling(castling) ^ Zobrist.getEnPassant(enPassant) ^ (side == Colour.WHITE ? Zobrist.getSide() : 0);
+    }
+
+    protected final long getPieces(final Colour colour, final int kind)
+    {
+        return pieces[Position.getCode(colour, kind)];
+    }
+
+    protected final long getOccupancy(final Colour colour)
+    {
+        final int offset = Position.getCode(colour, Position.PAWN);
+        return pieces[offset] | pieces[offset + 1] | pieces[offset + 2] | pieces[offset + 3] | pieces[offset + 4] | pieces[offset + 5];
+    }
+
+    protected final int getPiece(final int square)
+    {
+        return squares[square];
+    }
+
+    protected final Colour getSide()
+    {
+        return side;
+    }
+
+    protected final int getCastling()
+    {
+        return castling;
+    }
+
+    protected final int getEnPassant()
+    {
+        return enPassant;
+    }
+
+    protected final int getHalfMoves()
+    {
+        return halfMoves;
+    }
+
+    protected final int getFullMoves()
+    {
+        return fullMoves;
+    }
+
+    protected final long getKey()
+    {
+        return key;
+    }
+
+    protected final int getPhase()
+    {
+        return phase;
+    }
+
+    protected final boolean hasPieces(final Colour colour)
+    {
+        final int offset = Position.getCode(colour, Position.PAWN);
+        return (pieces[offset + Position.KNIGHT] | pieces[offset + Position.BISHOP] | pieces[offset + Position.ROOK] | pieces[offset + Position.QUEEN]) != 0;
+    }
+
+    protected final long getPawnKey()
+    {
+        return pawnKey;
+    }
+
+    protected final long[] getKeys()
+    {
+        return Arrays.copyOfRange(keys, Math.max(0, ply - Math.min(halfMoves, 100)), ply);
+    }
+
+    protected final boolean isRepetition()
+    {
+        for (int i = ply - 2; i >= Math.max(0, ply - halfMoves); i -= 2)
+        {
+            if (keys[i] == key) return true;
+        }
+
+        return false;
+    }
+
+    protected final boolean isDrawn()
+    {
+        int repetitions = 0;
+
+        // A GAME ENDS ON THE FIFTY MOVE RULE, A THIRD OCCURRENCE OF THE POSITION, OR WHEN NEITHER SIDE CAN MATE
+        for (int i = ply - 2; i >= Math.max(0, ply - halfMoves); i -= 2)
+        {
+            if (keys[i] == key) repetitions++;
+        }
+
+        return halfMoves >= 100 || repetitions >= 2 || isInsufficient();
+    }
+
+    private final boolean isInsufficient()
+    {
+        long minors = 0;
+
+        for (final Colour colour : Colour.values())
+        {
+            if ((getPieces(colour, Position.PAWN) | getPieces(colour, Position.ROOK) | getPieces(colour, Position.QUEEN)) != 0) return false;
+            minors |= getPieces(colour, Position.KNIGHT) | getPieces(colour, Position.BISHOP);
+        }
+
+        return Long.bitCount(minors) <= 1;
+    }
+
+    protected final void makeMove(final int move)
+    {
+        final int positionFrom = Move.getFrom(move);
+        final int positionTo = Move.getTo(move);
+        final int moving = squares[positionFrom];
+        final int kind = Position.getKind(moving);
+        final int capturedSquare = kind == Position.PAWN && positionTo == enPassant ? positionTo - side.setDirection(8) : positionTo;
+        final int captured = squares[capturedSquare];
+
+        if (ply == keys.length) grow();
+        moves[ply] = move;
+        keys[ply] = key;
+        history[ply++] = (captured + 1) | castling << 4 | (enPassant + 1) << 8 | (long) halfMoves << 16;
+
+        if (captured != Position.EMPTY) remove(captured, capturedSquare);
+        remove(moving, positionFrom);
+        add(Move.getPromotion(move) == 0 ? moving : Position.getCode(side, Move.getPromotion(move)), positionTo);
+
+        if (kind == Position.KING && Math.abs(positionTo - positionFrom) == 2) { // KING CASTLING
+            final int rook = squares[positionTo > positionFrom ? positionTo + 1 : positionTo - 2];
+            remove(rook, positionTo > positionFrom ? positionTo + 1 : positionTo - 2);
+            add(rook, (positionFrom + positionTo) / 2);
+        }
+
+        key ^= Zobrist.getCastling(castling) ^ Zobrist.getEnPassant(enPassant);
+        enPassant = kind == Position.PAWN && Math.abs(positionTo - positionFrom) == 16 ? (positionFrom + positionTo) / 2 : Position.EMPTY;
+        castling &= CASTLING_MASK[positionFrom] & CASTLING_MASK[positionTo];
+        halfMoves = kind == Position.PAWN || captured != Position.EMPTY ? 0 : halfMoves + 1;
+        fullMoves += side == Colour.BLACK ? 1 : 0;
+        side = side.opposite();
+        key ^= Zobrist.getCastling(castling) ^ Zobrist.getEnPassant(enPassant) ^ Zobrist.getSide();
+    }
+
+    protected final void unmakeMove()
+    {
+        final int move = moves[--ply];
+        final long undo = history[ply];
+        final int positionFrom = Move.getFrom(move);
+        final int positionTo = Move.getTo(move);
+        final int captured = (int) (undo & 0xF) - 1;
+
+        side = side.opposite();
+        fullMoves -= side == Colour.BLACK ? 1 : 0;
+        castling = (int) (undo >>> 4) & 0xF;
+        enPassant = (int) (undo >>> 8 & 0xFF) - 1;
+        halfMoves = (int) (undo >>> 16);
+
+        final int placed = squares[positionTo];
+        final int moving = Move.getPromotion(move) == 0 ? placed : Position.getCode(side, Position.PAWN);
+        final int kind = Position.getKind(moving);
+
+        remove(placed, positionTo);
+        add(moving, positionFrom);
+
+        if (kind == Position.KING && Math.abs(positionTo - positionFrom) == 2) { // KING CASTLING
+            final int rook = squares[(positionFrom + positionTo) / 2];
+            remove(rook, (positionFrom + positionTo) / 2);
+            add(rook, positionTo > positionFrom ? positionTo + 1 : positionTo - 2);
+        }
+
+        if (captured != Position.EMPTY) add(captured, kind == Position.PAWN && positionTo == enPassant ? positionTo - side.setDirection(8) : positionTo);
+        key = keys[ply];
+    }
+
+    protected final void makeNullMove()
+    {
+        if (ply == keys.length) grow();
+        moves[ply] = 0;
+        keys[ply] = key;
+        history[ply++] = castling << 4 | (enPassant + 1) << 8 | (long) halfMoves << 16;
+
+        // NO REPETITION CAN REACH BACK ACROSS A PASSED TURN
+        key ^= Zobrist.getEnPassant(enPassant) ^ Zobrist.getSide();
+        enPassant = Position.EMPTY;
+        halfMoves = 0;
+        side = side.opposite();
+    }
+
+    private void grow()
+    {
+        // THE UNDO STACK ONLY NEEDS ROOM FOR ONE SEARCH BEYOND THE GAME, SO IT GROWS ONLY WHEN PLAYED PAST THAT
+        moves = Arrays.copyOf(moves, moves.length * 2);
+        history = Arrays.copyOf(history, history.length * 2);
+        keys = Arrays.copyOf(keys, keys.length * 2);
+    }
+
+    protected final void unmakeNullMove()
+    {
+        final long undo = history[--ply];
+
+        side = side.opposite();
+        enPassant = (int) (undo >>> 8 & 0xFF) - 1;
+        halfMoves = (int) (undo >>> 16);
+        key = keys[ply];
+    }
+
+    protected final int[] getMoves()
+    {
+        final int[] buffer = new int[MAX_MOVES];
+        return Arrays.copyOf(buffer, getMoves(buffer));
+    }
+
+    protected final int getMoves(final int[] buffer)
+    {
+        final long checkers = getCheckers();
+        final long pinned = getPinned();
+        final int count = getPseudoMoves(buffer, ALL);
+        int legal = 0;
+
+        // ILLEGAL MOVES ARE DROPPED BY COMPACTING THE BUFFER IN PLACE
+        for (int i = 0; i < count; i++)
+        {
+            if (isLegal(buffer[i], checkers, pinned)) buffer[legal++] = buffer[i];
+        }
+
+        return legal;
+    }
+
+    protected final int getPseudoMoves(final int[] buffer, final int stage)
+    {
+        final int offset = Position.getCode(side, Position.PAWN);
+        final long enemy = getOccupancy(side.opposite());
+        final long occupancy = enemy | getOccupancy(side);
+        int count = 0;
+
+        for (int kind = Position.PAWN; kind <= Position.KING; kind++)
+        {
+            for (long bits = pieces[offset + kind]; bits != 0; bits &= bits - 1)
+            {
+                count = addMoves(buffer, count, Long.numberOfTrailingZeros(bits), stage, enemy, occupancy);
+            }
+        }
+
+        return (stage & QUIETS) != 0 ? addCastlingMoves(buffer, count) : count;
+    }
+
+    protected final int getPseudoMove(final int move)
+    {
+        final int positionFrom = Move.getFrom(move);
+        final int code = squares[positionFrom];
+
+        if (code == Position.EMPTY || Position.getColour(code) != side) return 0;
+
+        // TABLE MOVES CARRY NO FLAGS, SO THE MATCHING GENERATED MOVE SUPPLIES THEM
+        final long enemy = getOccupancy(side.opposite());
+        int count = addMoves(scratch, 0, positionFrom, ALL, enemy, enemy | getOccupancy(side));
+        if (Position.getKind(code) == Position.KING) count = addCastlingMoves(scratch, count);
+
+        for (int i = 0; i < count; i++)
+        {
+            if ((scratch[i] & 0xFFFF) == (move & 0xFFFF)) return scratch[i];
+        }
+
+        return 0;
+    }
+
+    protected final long getCheckers()
+    {
+        return getAttackers(kings[side.ordinal()], side.opposite(), getOccupancy());
+    }
+
+    protected final long getPinned()
+    {
+        final int king = kings[side.ordinal()];
+        final int offset = Position.getCode(side.opposite(), Position.PAWN);
+        final long occupancy = getOccupancy();
+        final long queens = pieces[offset + Position.QUEEN];
+        long pinned = 0;
+
+        // ENEMY SLIDERS THAT WOULD SEE THE KING ON AN EMPTY BOARD PIN A LONE FRIENDLY PIECE IN BETWEEN
+        long snipers = (Tables.getBishopAttacks(king, 0) & (pieces[offset + Position.BISHOP] | queens)) | (Tables.getRookAttacks(king, 0) & (pieces[offset + Position.ROOK] | queens));
+
+        for (; snipers != 0; snipers &= snipers - 1)
+        {
+            final long between = Tables.getBetween(king, Long.numberOfTrailingZeros(snipers)) & occupancy;
+            if (Long.bitCount(between) == 1) pinned |= between & getOccupancy(side);
+        }
+
+        return pinned;
+    }
+
+    protected final boolean isLegal(final int move, final long checkers, final long pinned)
+    {
+        final int king = kings[side.ordinal()];
+        final int positionFrom = Move.getFrom(move);
+        final int positionTo = Move.getTo(move);
+
+        if (positionFrom == king) {
+            if ((move & Move.CASTLING) != 0) { // KING CASTLING
+                return checkers == 0 && !isSquareAttacked((positionFrom + positionTo) / 2, side.opposite()) && !isSquareAttacked(positionTo, side.opposite());
+            }
+
+            // THE KING CANNOT HIDE BEHIND ITSELF FROM A SLIDER
+            return getAttackers(positionTo, side.opposite(), getOccupancy() & ~(1L << positionFrom)) == 0;
+        }
+
+        if (Long.bitCount(checkers) > 1) return false;
+
+        if ((move & Move.EN_PASSANT) != 0) { // ENPASSANT CAN EXPOSE THE KING ALONG THE RANK
+            makeMove(move);
+            final boolean legal = !isChecked(side.opposite());
+            unmakeMove();
+
+            return legal;
+        }
+
+        if (checkers != 0 && ((checkers | Tables.getBetween(king, Long.numberOfTrailingZeros(checkers))) & (1L << positionTo)) == 0) return false;
+        return (pinned & (1L << positionFrom)) == 0 || (Tables.getLine(king, positionFrom) & (1L << positionTo)) != 0;
+    }
+
+    protected final boolean isChecked(final Colour colour)
+    {
+        return isSquareAttacked(kings[colour.ordinal()], colour.opposite());
+    }
+
+    protected final boolean isSquareAttacked(final int square, final Colour colour)
+    {
+        return getAttackers(square, colour, getOccupancy()) != 0;
+    }
+
+    protected final int calculateValue(final PawnTable pawns)
+    {
+        final int structure = pawns.evaluate(this);
+        return calculateValue(middlegame + PawnTable.getMiddlegame(structure), endgame + PawnTable.getEndgame(structure));
+    }
+
+    private final int calculateValue(final int middlegame, final int endgame)
+    {
+        // PROMOTIONS CAN PUSH THE PHASE PAST AN OPENING'S WORTH OF MATERIAL
+        final int opening = Math.min(phase, PieceSquare.PHASE_TOTAL);
+        return (middlegame * opening + endgame * (PieceSquare.PHASE_TOTAL - opening)) / PieceSquare.PHASE_TOTAL;
+    }
+
+    private final long getOccupancy()
+    {
+        return getOccupancy(Colour.BLACK) | getOccupancy(Colour.WHITE);
+    }
+
+    private final long getAttackers(final int square, final Colour colour, final long occupancy)
+    {
+        final int offset = Position.getCode(colour, Position.PAWN);
+        final long queens = pieces[offset + Position.QUEEN];
+
+        // A PAWN OF THE OTHER COLOUR ON THE SQUARE ATTACKS EXACTLY THE PAWNS THAT ATTACK IT
+        return (Tables.getAttacks(Position.getCode(colour.opposite(), Position.PAWN), square) & pieces[offset + Position.PAWN])
+            | (Tables.getAttacks(offset + Position.KNIGHT, square) & pieces[offset + Position.KNIGHT])
+            | (Tables.getAttacks(offset + Position.KING, square) & pieces[offset + Position.KING])
+            | (Tables.getBishopAttacks(square, occupancy) & (pieces[offset + Position.BISHOP] | queens))
+            | (Tables.getRookAttacks(square, occupancy) & (pieces[offset + Position.ROOK] | queens));
+    }
+
+    private final int addMoves(final int[] buffer, int count, final int positionFrom, final int stage, final long enemy, final long occupancy)
+    {
+        final int code = squares[positionFrom];
+
+        if (Position.getKind(code) == Position.PAWN)
+        {
+            final int forward = positionFrom + side.setDirection(8);
+            final boolean promotion = forward / 8 == 0 || forward / 8 == 7;
+
+            // QUIET PROMOTIONS ARE GENERATED WITH THE CAPTURES
+            if ((occupancy & (1L << forward)) == 0 && (stage & (promotion ? CAPTURES : QUIETS)) != 0) { // STRAIGHT
+                count = addPawnMoves(buffer, count, positionFrom, forward, 0);
+            }
+
+            if ((stage & QUIETS) != 0 && positionFrom / 8 == (side == Colour.BLACK ? 1 : 6) && (occupancy & (1L << forward | 1L << (forward + side.setDirection(8)))) == 0) {
+                buffer[count++] = Move.of(positionFrom, forward + side.setDirection(8), 0, Move.DOUBLE);
+            }
+
+            if ((stage & CAPTURES) != 0)
+            {
+                for (long targets = Tables.getAttacks(code, positionFrom) & enemy; targets != 0; targets &= targets - 1) // DIAGONAL
+                {
+                    count = addPawnMoves(buffer, count, positionFrom, Long.numberOfTrailingZeros(targets), Move.CAPTURE);
+                }
+
+                if (enPassant != Position.EMPTY && (Tables.getAttacks(code, positionFrom) & (1L << enPassant)) != 0) { // ENPASSANT
+                    buffer[count++] = Move.of(positionFrom, enPassant, 0, Move.CAPTURE | Move.EN_PASSANT);
+                }
+            }
+
+            return count;
+        }
+
+        final long mask = ((stage & CAPTURES) != 0 ? enemy : 0) | ((stage & QUIETS) != 0 ? ~occupancy : 0);
+
+        for (long targets = getTargets(code, positionFrom, occupancy) & mask; targets != 0; targets &= targets - 1)
+        {
+            final int positionTo = Long.numberOfTrailingZeros(targets);
+            buffer[count++] = Move.of(positionFrom, positionTo, 0, (enemy & (1L << positionTo)) != 0 ? Move.CAPTURE : 0);
+        }
+
+        return count;
+    }
+
+    private final int addCastlingMoves(final int[] buffer, int count)
+    {
+        final int king = kings[side.ordinal()];
+
+        if (canCastle(side, true) && squares[king + 1] == Position.EMPTY && squares[king + 2] == Position.EMPTY) { // KING CASTLING
+            buffer[count++] = Move.of(king, king + 2, 0, Move.CASTLING);
+        }
+
+        if (canCastle(side, false) && squares[king - 1] == Position.EMPTY && squares[king - 2] == Position.EMPTY && squares[king - 3] == Position.EMPTY) { // KING CASTLING
+            buffer[count++] = Move.of(king, king - 2, 0, Move.CASTLING);
+        }
+
+        return count;
+    }
+
+    private final int addPawnMoves(final int[] buffer, int count, final int positionFrom, final int positionTo, final int flags)
+    {
+        if (positionTo / 8 == 0 || positionTo / 8 == 7) { // PAWN PROMOTION
+            for (int promotion = Position.QUEEN; promotion >= Position.KNIGHT; promotion--)
+            {
+                buffer[count++] = Move.of(positionFrom, positionTo, promotion, flags);
+            }
+        } else buffer[count++] = Move.of(positionFrom, positionTo, 0, flags);
+
+        return count;
+    }
+
+    private static final long getTargets(final int code, final int positionFrom, final long occupancy)
+    {
+        switch (Position.getKind(code)) {
+            case Position.BISHOP: return Tables.getBishopAttacks(positionFrom, occupancy);
+            case Position.ROOK: return Tables.getRookAttacks(positionFrom, occupancy);
+            case Position.QUEEN: return Tables.getBishopAttacks(positionFrom, occupancy) | Tables.getRookAttacks(positionFrom, occupancy);
+            default: return Tables.getAttacks(code, positionFrom);
+        }
+    }
+
+    private final boolean canCastle(final Colour colour, final boolean kingSide)
+    {
+        return (castling & (1 << (colour.ordinal() * 2 + (kingSide ? 0 : 1)))) != 0;
+    }
+
+    private final void add(final int code, final int square)
+    {
+        pieces[code] |= 1L << square;
+        squares[square] = code;
+        if (Position.getKind(code) == Position.KING) kings[code / 6] = square;
+        key ^= Zobrist.getPiece(code, square);
+        if (Position.getKind(code) == Position.PAWN) pawnKey ^= Zobrist.getPiece(code, square);
+        middlegame += PieceSquare.getMiddlegame(code, square);
+        endgame += PieceSquare.getEndgame(code, square);
+        phase += PieceSquare.getPhase(code);
+    }
+
+    private final void remove(final int code, final int square)
+    {
+        pieces[code] &= ~(1L << square);
+        squares[square] = Position.EMPTY;
+        key ^= Zobrist.getPiece(code, square);
+        if (Position.getKind(code) == Position.PAWN) pawnKey ^= Zobrist.getPiece(code, square);
+        middlegame -= PieceSquare.getMiddlegame(code, square);
+        endgame -= PieceSquare.getEndgame(code, square);
+        phase -= PieceSquare.getPhase(code);
+    }
+}
\ No newline at end of file
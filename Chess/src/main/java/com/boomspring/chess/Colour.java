@@ -1,13 +1,23 @@
 package com.boomspring.chess;
 
-import java.util.Map;
-
 public enum Colour
 {
-    BLACK, WHITE;
+    BLACK(1), WHITE(-1);
+
+    private final int direction;
+
+    private Colour(final int direction)
+    {
+        this.direction = direction;
+    }
 
     protected final int setDirection(final int vector)
     {
-        return vector * Map.of(BLACK, 1, WHITE, -1).get(this);
+        return vector * direction;
+    }
+
+    protected final Colour opposite()
+    {
+        return this == BLACK ? WHITE : BLACK;
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.boomspring.chess;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public final class Epd
+{
+    private static final int HASH = 16;
+
+    // THE FIRST TEN WIN AT CHESS POSITIONS, USED WHEN NO SUITE FILE IS GIVEN
+    private static final ImmutableList<String> SUITE = ImmutableList.of(
+        "2rr3k/pp3pp1/1nnqbN1p/3pN3/2pP4/2P3Q1/PPB4P/R4RK1 w - - bm Qg6; id \"WAC.001\";",
+        "8/7p/5k2/5p2/p1p2P2/Pr1pPK2/1P1R3P/8 b - - bm Rxb2; id \"WAC.002\";",
+        "5rk1/1ppb3p/p1pb4/6q1/3P1p1r/2P1R2P/PP1BQ1P1/5RKN w - - bm Rg3; id \"WAC.003\";",
+        "r1bq2rk/pp3pbp/2p1p1pQ/7P/3P4/2PB1N2/PP3PPR/2KR4 w - - bm Qxh7+; id \"WAC.004\";",
+        "5k2/6pp/p1qN4/1p1p4/3P4/2PKP2Q/PP3r2/3R4 b - - bm Qc4+; id \"WAC.005\";",
+        "7k/p7/1R5K/6r1/6p1/6P1/8/8 w - - bm Rb7; id \"WAC.006\";",
+        "rnbqkb1r/pppp1ppp/8/4P3/6n1/7P/PPPNPPP1/R1BQKBNR b KQkq - bm Ne3; id \"WAC.007\";",
+        "r4q1k/p2bR1rp/2p2Q1N/5p2/5p2/2P5/PP3PPP/R5K1 w - - bm Rf7; id \"WAC.008\";",
+        "3q1rk1/p4pp1/2pb3p/3p4/6Pr/1PNQ4/P1PB1PP1/4RRK1 b - - bm Bh2+; id \"WAC.009\";",
+        "2br2k1/2q3rn/p2NppQ1/2p1P3/Pp5R/4P3/1P3PPP/3R2K1 w - - bm Rxh7; id \"WAC.010\";"
+    );
+
+    private Epd()
+    {
+    }
+
+    public static final void run(final String... args) throws IOException, InterruptedException
+    {
+        // epd [FILE|-] [MILLIS PER POSITION] [THREADS]
+        final List<String> lines = args.length > 1 && !args[1].equals("-") ? Files.readAllLines(Paths.get(args[1])).stream().map(String::trim).filter(line -> !line.isEmpty() && !line.startsWith("#")).collect(Collectors.toList()) : SUITE;
+        final long millis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        final int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("Epd %d").build());
+        final long start = System.nanoTime();
+        int solved = 0;
+
+        try {
+            // EACH POSITION SEARCHES ALONE ON ONE CORE WITH ITS OWN TABLE, SO RESULTS DO NOT DEPEND ON ORDER
+            final List<Future<String>> futures = lines.stream().map(line -> executor.submit(() -> solve(line, millis))).collect(Collectors.toList());
+
+            for (final Future<String> future : futures)
+            {
+                try {
+                    final String report = future.get();
+                    if (report.startsWith("SOLVED")) solved++;
+                    System.out.println(report);
+                } catch (final ExecutionException e) {
+                    System.out.println("ERROR  " + e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println(String.format("SOLVED %d/%d in %.0f ms, %d ms per position on %d threads", solved, lines.size(), (System.nanoTime() - start) / 1e6, millis, threads));
+    }
+
+    private static final String solve(final String line, final long millis) throws InterruptedException
+    {
+        // FOUR FEN FIELDS, THEN OPERATIONS SEPARATED BY SEMICOLONS
+        final String[] fields = line.split("\\s+", 5);
+        final Position position = new Position(String.join(" ", Arrays.copyOf(fields, 4)));
+        final Map<String, String> operations = getOperations(fields.length > 4 ? fields[4] : "");
+        final List<String> best = getMoves(operations, "bm");
+        final List<String> avoid = getMoves(operations, "am");
+        final Search search = new Search(new TranspositionTable(HASH));
+        final Node.Result result;
+
+        try {
+            result = search.search(position, Node.MAX_PLY - 1, millis);
+        } finally {
+            search.shutdown();
+        }
+
+        final Board board = new Board(position);
+        final int move = result == null ? 0 : result.getMove();
+        final String san = move == 0 ? "(none)" : Move.toSan(board, move);
+        final String plain = getPlain(san);
+        final boolean found = move != 0 && (best.isEmpty() || best.contains(plain) || best.contains(Move.toString(move))) && !avoid.contains(plain) && !avoid.contains(Move.toString(move));
+
+        return String.format("%s %-12s %-8s %s %-16s %s", found ? "SOLVED" : "FAILED", operations.getOrDefault("id", "-"), san, best.isEmpty() ? "am" : "bm", String.join(" ", best.isEmpty() ? avoid : best), position.toFen());
+    }
+
+    private static final Map<String, String> getOperations(final String text)
+    {
+        final Map<String, String> operations = new HashMap<>();
+
+        // A REPEATED OPCODE KEEPS ITS LAST VALUE
+        for (final String operation : text.split(";"))
+        {
+            final String[] parts = operation.trim().split("\\s+", 2);
+            if (!parts[0].isEmpty()) operations.put(parts[0], parts.length > 1 ? parts[1].replace("\"", "").trim() : "");
+        }
+
+        return operations;
+    }
+
+    private static final List<String> getMoves(final Map<String, String> operations, final String opcode)
+    {
+        // CHECK AND ANNOTATION MARKS ARE NOT PART OF THE MOVE ITSELF
+        return operations.containsKey(opcode) ? Arrays.stream(operations.get(opcode).split("\\s+")).map(Epd::getPlain).collect(Collectors.toList()) : ImmutableList.of();
+    }
+
+    private static final String getPlain(final String move)
+    {
+        return move.replaceAll("[+#!?]", "");
+    }
+}
\ No newline at end of file
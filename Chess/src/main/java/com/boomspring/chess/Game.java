@@ -1,55 +1,90 @@
 package com.boomspring.chess;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Optional;
-import java.util.OptionalInt;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
-import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Range;
 
 public final class Game extends Thread
 {
+    private static final long STOP_SECONDS = 5;
+
     private final ImmutableList<Player> players;
     private final ArrayList<Turn> turns;
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private volatile Runnable listener = () -> {};
 
     protected Game(final String title)
     {
         super(title);
         this.players = ImmutableList.of(new Player.AI(Colour.BLACK, 3), new Player.AI(Colour.WHITE, 3));
-        this.turns = Lists.newArrayList(new Turn());
+        this.turns = Lists.newArrayList(new Turn(new Position()));
     }
 
     protected Game(final String title, final ImmutableList<Player> players)
+    {
+        this(title, players, new Position());
+    }
+
+    protected Game(final String title, final ImmutableList<Player> players, final Position position)
     {
         super(title);
         this.players = players;
-        this.turns = Lists.newArrayList(new Turn());
+        this.turns = Lists.newArrayList(new Turn(position));
     }
 
     public static final void main(final String... args) throws Exception
     {
-        new UI("Chess");
-        UI.getGame().start();
+        switch (args.length == 0 ? "" : args[0]) {
+            case "speedup":
+                Search.speedup(args);
+                break;
+            case "perft":
+                Perft.run(args);
+                break;
+            case "divide":
+                Perft.divide(args);
+                break;
+            case "uci":
+                Uci.run(args);
+                break;
+            case "epd":
+                Epd.run(args);
+                break;
+            default:
+                new UI("Chess");
+                UI.getGame().start();
+        }
     }
 
     public final Player getCurrentPlayer()
     {
-        return players.get(turns.size() % 2);
+        return getPlayer(getCurrentTurn().getPosition().getSide());
     }
 
     public final Player getNextPlayer()
     {
-        return players.get((turns.size() + 1) % 2);
+        return getPlayer(getCurrentTurn().getPosition().getSide().opposite());
+    }
+
+    public final void setListener(final Runnable listener)
+    {
+        this.listener = listener;
+    }
+
+    public final Player getPlayer(final Colour colour)
+    {
+        return players.stream().filter(x -> x.getColour().equals(colour)).findFirst().orElseThrow();
     }
 
     public final ImmutableList<Player> getPlayers()
@@ -70,56 +105,37 @@ public final class Game extends Thread
     public synchronized final void run()
     {
         try {
-            while(!isInterrupted()) {
-                final Turn turn = executor.submit(getCurrentPlayer()).get();
+            while(!isInterrupted() && getCurrentTurn().hasMoves()) {
+                if (getCurrentTurn().isDrawn()) {
+                    System.out.println("Draw");
+                    break;
+                }
+
+                final Turn turn = executor.submit(() -> getCurrentPlayer().call(this)).get();
 
-                this.getCurrentTurn().getBoard().get(turn.positionFrom).getPiece().map(Piece::getPlayer)
-                    .filter(getCurrentPlayer()::equals)
-                    .flatMap(i -> getCurrentTurn().getPotentialTurns(turn.positionFrom).filter(t -> t.getPositionTo().filter(turn.positionTo::equals).isPresent()).findFirst())
-                    .map(Turn::new)
-                    .stream().peek(turns::add)
-                    .findFirst().ifPresentOrElse(x -> System.out.println("Move Successful"), IllegalArgumentException::new);
+                final Optional<Turn> legal = getCurrentTurn().getLegalTurn(turn);
 
-                UI.refreshBoard();
+                if (legal.isPresent()) {
+                    turns.add(legal.get());
+                    System.out.println("Move Successful");
+                }
+
+                listener.run();
             }
+        } catch(final InterruptedException e) {
+            // THE GAME WAS REPLACED, SO THE PLAYER STILL THINKING IS STOPPED BELOW
         } catch(final Exception e) {
             e.printStackTrace();
+        } finally {
             executor.shutdownNow();
-        }
-    }
 
-    public interface Rules
-    {
-        public default long calculateLimit(final Turn turn, final int positionFrom, final int vector)
-        {
-            return ((Piece) this).getRange().orElse(7);
-        }
-
-        public abstract boolean validVector(final int positionCurrent, final int vector);
-
-        public default boolean noCollide(final Turn turn, final int positionFrom, final int positionCurrent, final int vector)
-        {
-            return turn.getBoard().get(positionCurrent + vector).getPiece().map(Piece::getPlayer).filter(((Piece) this).getPlayer()::equals)
-                .or(() -> turn.getBoard().get(positionCurrent).getPiece().filter(Predicates.not(((Piece) this)::equals)).map(Piece::getPlayer))
-                .isEmpty();
-        }
-
-        public default boolean noCheckBeforeMoving(final Turn turn, final int positionFrom, final int positionCurrent, final int vector)
-        {
-            if (((Piece) this).getPlayer().equals(UI.getGame().getCurrentPlayer()))
-            {
-                return !((positionCurrent - positionFrom == vector) && Piece.King.class.isInstance(this) && turn.getPotentialTurns(UI.getGame().getNextPlayer()).mapToInt(x -> x.getPositionTo().orElse(0)).anyMatch(i -> positionFrom == i));
+            try {
+                executor.awaitTermination(STOP_SECONDS, TimeUnit.SECONDS);
+            } catch(final InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-            else return true;
-        }
 
-        public default boolean noCheckAfterMoving(final Turn turn, final int positionFrom)
-        {
-            if (((Piece) this).getPlayer().equals(UI.getGame().getCurrentPlayer()))
-            {
-                return turn.getPotentialTurns(UI.getGame().getNextPlayer()).mapToInt(x -> x.getPositionTo().orElse(0)).noneMatch(x -> x == turn.getPosition(Piece.King.class, UI.getGame().getCurrentPlayer()).orElse(-1));
-            }
-            else return true;
+            players.forEach(Player::stop);
         }
     }
 
@@ -127,96 +143,37 @@ public final class Game extends Thread
     {
         private final Integer positionFrom;
         private final Integer positionTo;
-        private final ImmutableList<Tile> board;
-
-        private Turn()
+        private final int move;
+        private final Position position;
+        // CACHED ON FIRST USE, AND READ BY BOTH THE GAME THREAD AND THE EVENT THREAD
+        private volatile ImmutableList<Tile> board;
+        private volatile int[] moves;
+        private volatile ImmutableSetMultimap<Integer, Integer> destinations;
+
+        private Turn(final Position position)
         {
             this.positionFrom = null;
             this.positionTo = null;
-            this.board = IntStream.range(0, 64).mapToObj(i -> { switch(i) {
-                case 0:  case 7: return new Piece.Rook(players.get(0));
-                case 1: case 6: return new Piece.Knight(players.get(0));
-                case 2: case 5: return new Piece.Bishop(players.get(0));
-                case 3: return new Piece.Queen(players.get(0));
-                case 4: return new Piece.King(players.get(0));
-                case 8: case 9: case 10: case 11: case 12: case 13: case 14: case 15: return new Piece.Pawn(players.get(0));
-                case 48: case 49: case 50: case 51: case 52: case 53: case 54: case 55: return new Piece.Pawn(players.get(1));
-                case 56: case 63: return new Piece.Rook(players.get(1));
-                case 57: case 62: return new Piece.Knight(players.get(1));
-                case 58: case 61: return new Piece.Bishop(players.get(1));
-                case 59: return new Piece.Queen(players.get(1));
-                case 60: return new Piece.King(players.get(1));
-                default: return null;
-            }}).map(Tile::new).collect(ImmutableList.toImmutableList());
+            this.move = 0;
+            this.position = position;
         }
 
-        private Turn(final Turn turn)
+        protected Turn(final Turn turn, final int positionFrom, final int positionTo)
         {
-            this.positionFrom = turn.positionFrom;
-            this.positionTo = turn.positionTo;
-
-            final ArrayList<Tile> copy = new ArrayList<>(turn.board);
-
-            // PAWN PROMOTION
-            Optional.of(positionTo).filter(p -> UI.getRow(p) == Map.of(Colour.BLACK, 7, Colour.WHITE, 0).get(getCurrentPlayer().getColour())).map(copy::get)
-                    .flatMap(Tile::getPiece).filter(Piece.Pawn.class::isInstance)
-                    .map(Piece::getPlayer).filter(getCurrentPlayer()::equals).ifPresent(player -> {
-                        if (Player.Human.class.isInstance(player)) {
-                            copy.set(positionTo, copy.get(positionTo).updatePiece(new UI.Promotion(player).call()));
-                        } else {
-                            copy.set(positionTo, copy.get(positionTo).updatePiece(new Piece.Queen(player)));
-                        }
-            });
-
-            this.board = ImmutableList.copyOf(copy);
+            this(turn, positionFrom, positionTo, Position.QUEEN);
         }
 
-        protected Turn(final Turn turn, final int positionFrom, final int positionTo)
+        protected Turn(final Turn turn, final int positionFrom, final int positionTo, final int promotion)
         {
-            this.positionFrom = positionFrom;
-            this.positionTo = positionTo;
-
-            final ArrayList<Tile> copy = new ArrayList<>(turn.board);
-
-            if (copy.get(positionFrom).getPiece().filter(Piece.Pawn.class::isInstance).isPresent()) { // DIAGONAL PAWN MOVE
-                final int passant = positionTo + Map.of(9, -8, 7, -8, -7, 8, -9, 8).getOrDefault(positionTo - positionFrom, 0);
-
-                if (copy.get(positionTo).getPiece().map(Piece::getPlayer).isEmpty() && Optional.of(copy.get(passant))
-                        .filter(i -> Math.abs(getCurrentTurn().getPositionTo().orElse(0) - getCurrentTurn().getPositionFrom().orElse(0)) == 16)
-                        .filter(i -> i.getCounter().filter(x -> turns.size() - x == 1).isPresent())
-                        .flatMap(x -> x.getPiece())
-                        .filter(Piece.Pawn.class::isInstance).map(Piece::getPlayer)
-                        .filter(i -> UI.getRow(positionFrom) == i.getColour().ordinal() + 3)
-                        .filter(getNextPlayer()::equals).isPresent()) { // ENPASSANT DIAGONAL
-
-                    copy.set(passant, copy.get(passant).updatePiece(null).updateCounter(turns.size()));
-                } else { // NORMAL DIAGONAL OR STRAIGHT
-
-                    copy.set(positionTo, copy.get(positionTo).updatePiece(null).updateCounter(turns.size()));
-                }
-            } else { // OTHER MOVES
-                if (copy.get(positionFrom).getPiece().filter(Piece.King.class::isInstance).isPresent()) { // KING CASTLING
-                    switch(positionTo - positionFrom) {
-                        case 2: // RIGHT SIDE
-                            copy.set(positionTo + 1, copy.get(positionTo + 1).updateCounter(turns.size()));
-                            Collections.swap(copy, positionTo + 1, positionTo - 1);
-                            break;
-                        case -2: // LEFT SIDE
-                            copy.set(positionTo - 2, copy.get(positionTo - 2).updateCounter(turns.size()));
-                            Collections.swap(copy, positionTo - 2, positionTo + 1);
-                            break;
-                    }
-                }
-
-                copy.set(positionTo, copy.get(positionTo).updatePiece(null).updateCounter(turns.size()));
-            }
-
-            copy.set(positionFrom, copy.get(positionFrom).updateCounter(turns.size()));
-            Collections.swap(copy, positionFrom, positionTo);
-
-
+            this(turn, Move.of(positionFrom, positionTo, turn.position.isPromotion(positionFrom, positionTo) ? promotion : 0));
+        }
 
-            this.board = ImmutableList.copyOf(copy);
+        protected Turn(final Turn turn, final int move)
+        {
+            this.positionFrom = Move.getFrom(move);
+            this.positionTo = Move.getTo(move);
+            this.move = move;
+            this.position = turn.position.play(move);
         }
 
         public final Optional<Integer> getPositionFrom()
@@ -229,43 +186,69 @@ public final class Game extends Thread
             return Optional.ofNullable(positionTo);
         }
 
-        protected final OptionalInt getPosition(final Class<? extends Piece> piece, final Player player)
+        public final Position getPosition()
         {
-            return IntStream.range(0, 64).filter(x -> this.board.get(x).getPiece().filter(piece::isInstance).map(Piece::getPlayer).filter(player::equals).isPresent()).findFirst();
+            return position;
         }
 
         public final ImmutableList<Tile> getBoard()
         {
+            if (board == null)
+            {
+                board = IntStream.range(0, 64).map(position::getPiece)
+                    .mapToObj(i -> i == Position.EMPTY ? null : Piece.of(Position.getKind(i), getPlayer(Position.getColour(i))))
+                    .map(Tile::new).collect(ImmutableList.toImmutableList());
+            }
+
             return board;
         }
 
         protected final Stream<Turn> getPotentialTurns(final Player player)
         {
-            return board.stream().filter(x -> x.getPiece().map(Piece::getPlayer).filter(player::equals).isPresent()).mapToInt(board::indexOf).boxed().flatMap(this::getPotentialTurns);
+            if (player.getColour().equals(position.getSide()))
+            {
+                return Arrays.stream(getMoves()).mapToObj(move -> new Turn(this, move));
+            }
+            else return Stream.empty();
+        }
+
+        protected final Optional<Turn> getLegalTurn(final Turn turn)
+        {
+            // A PLAYER'S MOVE CARRIES NO FLAGS, SO IT IS MATCHED ON ITS SQUARES AND PROMOTION AND ONLY THE MATCH IS PLAYED
+            return Arrays.stream(getMoves())
+                .filter(move -> Move.getFrom(move) == Move.getFrom(turn.move) && Move.getTo(move) == Move.getTo(turn.move) && Move.getPromotion(move) == Move.getPromotion(turn.move))
+                .mapToObj(move -> new Turn(this, move)).findFirst();
+        }
+
+        protected final boolean hasMoves()
+        {
+            return getMoves().length > 0;
         }
 
-        protected final Stream<Turn> getPotentialTurns(final int positionFrom)
+        public final ImmutableSet<Integer> getDestinations(final int positionFrom)
         {
-            return board.get(positionFrom).getPiece().map(piece -> {
-                return piece.getVectors().flatMapToInt(vector -> {
-                    return IntStream.iterate(positionFrom + vector, Range.closedOpen(0, 64)::contains, i -> i + vector)
-                        .limit(piece.calculateLimit(this, positionFrom, vector))
-                        .takeWhile(i -> piece.validVector(i - vector, vector))
-                        .takeWhile(i -> piece.noCollide(this, positionFrom, i - vector, vector))
-                        .takeWhile(i -> piece.noCheckBeforeMoving(this, positionFrom, i - vector, vector));
-                })
-                .sorted().distinct()
-                .mapToObj(i -> new Turn(this, positionFrom, i))
-                .filter(i -> piece.noCheckAfterMoving(i, positionFrom));
-            }).orElse(Stream.empty());
+            // THE LEGAL MOVES OF A TURN NEVER CHANGE, SO EVERY HOVER READS THE SAME MAP
+            if (destinations == null)
+            {
+                destinations = Arrays.stream(getMoves()).boxed().collect(ImmutableSetMultimap.toImmutableSetMultimap(Move::getFrom, Move::getTo));
+            }
+
+            return destinations.get(positionFrom);
         }
 
-        protected final int calculateValue()
+        private final int[] getMoves()
         {
-            final int totalWhite = board.stream().map(Tile::getPiece).flatMap(Optional::stream).filter(x -> x.getPlayer().getColour().equals(Colour.WHITE)).mapToInt(x -> x.getValue().orElseThrow()).sum();
-            final int totalBlack = board.stream().map(Tile::getPiece).flatMap(Optional::stream).filter(x -> x.getPlayer().getColour().equals(Colour.BLACK)).mapToInt(x -> x.getValue().orElseThrow()).sum();
+            if (moves == null)
+            {
+                moves = new Board(position).getMoves();
+            }
+
+            return moves;
+        }
 
-            return totalWhite - totalBlack;
+        public final boolean isDrawn()
+        {
+            return new Board(position).isDrawn();
         }
     }
 }
\ No newline at end of file
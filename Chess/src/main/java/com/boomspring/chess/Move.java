@@ -0,0 +1,110 @@
+package com.boomspring.chess;
+
+public final class Move
+{
+    protected static final int CAPTURE = 1 << 16;
+    protected static final int DOUBLE = 1 << 17;
+    protected static final int EN_PASSANT = 1 << 18;
+    protected static final int CASTLING = 1 << 19;
+
+    private Move()
+    {
+    }
+
+    protected static final int of(final int positionFrom, final int positionTo, final int promotion)
+    {
+        return of(positionFrom, positionTo, promotion, 0);
+    }
+
+    // FLAGS SIT ABOVE THE LOW 16 BITS SO TABLE MOVES STILL IDENTIFY A MOVE
+    protected static final int of(final int positionFrom, final int positionTo, final int promotion, final int flags)
+    {
+        return positionFrom | positionTo << 6 | promotion << 12 | flags;
+    }
+
+    protected static final int getFrom(final int move)
+    {
+        return move & 0x3F;
+    }
+
+    protected static final int getTo(final int move)
+    {
+        return (move >>> 6) & 0x3F;
+    }
+
+    protected static final int getPromotion(final int move)
+    {
+        return (move >>> 12) & 0x7;
+    }
+
+    protected static final boolean isCapture(final int move)
+    {
+        return (move & CAPTURE) != 0;
+    }
+
+    protected static final int getSquare(final String name)
+    {
+        if (name.length() != 2) throw new IllegalArgumentException(name);
+
+        final int column = name.charAt(0) - 'a';
+        final int row = '8' - name.charAt(1);
+
+        if (column < 0 || column > 7 || row < 0 || row > 7) throw new IllegalArgumentException(name);
+        return row * 8 + column;
+    }
+
+    protected static final String getName(final int square)
+    {
+        return String.valueOf((char) ('a' + square % 8)) + (char) ('8' - square / 8);
+    }
+
+    protected static final String toString(final int move)
+    {
+        return getName(getFrom(move)) + getName(getTo(move)) + (getPromotion(move) == 0 ? "" : String.valueOf(" nbrq".charAt(getPromotion(move))));
+    }
+
+    protected static final String toSan(final Board board, final int move)
+    {
+        final int positionFrom = getFrom(move);
+        final int positionTo = getTo(move);
+        final int code = board.getPiece(positionFrom);
+        final StringBuilder san = new StringBuilder();
+
+        if ((move & CASTLING) != 0) {
+            san.append(positionTo > positionFrom ? "O-O" : "O-O-O");
+        } else {
+            if (Position.getKind(code) == Position.PAWN) {
+                if (isCapture(move)) san.append(getName(positionFrom).charAt(0));
+            } else {
+                boolean ambiguous = false;
+                boolean column = false;
+                boolean row = false;
+
+                // ANOTHER PIECE OF THE SAME KIND REACHING THE SQUARE IS TOLD APART BY FILE, THEN RANK, THEN BOTH
+                for (final int other : board.getMoves())
+                {
+                    if (getTo(other) != positionTo || getFrom(other) == positionFrom || board.getPiece(getFrom(other)) != code) continue;
+
+                    ambiguous = true;
+                    column |= getFrom(other) % 8 == positionFrom % 8;
+                    row |= getFrom(other) / 8 == positionFrom / 8;
+                }
+
+                san.append("PNBRQK".charAt(Position.getKind(code)));
+                if (ambiguous && (!column || row)) san.append(getName(positionFrom).charAt(0));
+                if (ambiguous && column) san.append(getName(positionFrom).charAt(1));
+            }
+
+            if (isCapture(move)) san.append('x');
+            san.append(getName(positionTo));
+            if (getPromotion(move) != 0) san.append('=').append("PNBRQK".charAt(getPromotion(move)));
+        }
+
+        // THE CHECK MARK NEEDS THE REPLIES, SO THE MOVE IS PLAYED AND TAKEN BACK
+        board.makeMove(move);
+        if (board.isChecked(board.getSide())) san.append(board.getMoves().length == 0 ? '#' : '+');
+        board.unmakeMove();
+
+        return san.toString();
+    }
+}
\ No newline at end of file
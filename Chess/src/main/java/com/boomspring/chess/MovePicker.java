@@ -0,0 +1,144 @@
+package com.boomspring.chess;
+
+public final class MovePicker
+{
+    private static final int HASH = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int KILLERS = 3;
+    private static final int QUIETS = 4;
+    private static final int DONE = 5;
+
+    private final Board board;
+    private final int[] killers;
+    private final int[][][] history;
+    private final int[] moves = new int[Board.MAX_MOVES];
+    private final int[] scores = new int[Board.MAX_MOVES];
+    private int stage;
+    private int index;
+    private int count;
+    private int hashMove;
+    private int killerFirst;
+    private int killerSecond;
+    private long checkers;
+    private long pinned;
+    private boolean tactical;
+
+    protected MovePicker(final Board board, final int[] killers, final int[][][] history)
+    {
+        this.board = board;
+        this.killers = killers;
+        this.history = history;
+    }
+
+    protected final void reset(final int hashMove)
+    {
+        reset(hashMove, false);
+    }
+
+    protected final void reset(final int hashMove, final boolean tactical)
+    {
+        this.stage = HASH;
+        this.tactical = tactical;
+        this.hashMove = hashMove;
+        this.killerFirst = killers[0];
+        this.killerSecond = killers[1];
+        this.checkers = board.getCheckers();
+        this.pinned = board.getPinned();
+    }
+
+    protected final int next()
+    {
+        while (true)
+        {
+            switch (stage)
+            {
+                case HASH:
+                    // NOTHING IS GENERATED UNTIL THE HASH MOVE HAS FAILED TO CUT OFF
+                    hashMove = hashMove == 0 ? 0 : board.getPseudoMove(hashMove);
+                    stage = GENERATE_CAPTURES;
+                    if (hashMove != 0 && board.isLegal(hashMove, checkers, pinned)) return hashMove;
+                    break;
+
+                case GENERATE_CAPTURES:
+                    generate(Board.CAPTURES, CAPTURES);
+                    break;
+
+                case CAPTURES:
+                    final int capture = pick();
+                    if (capture != 0) return capture;
+                    stage = tactical ? DONE : KILLERS;
+                    index = 0;
+                    break;
+
+                case KILLERS:
+                    if (index == 2)
+                    {
+                        generate(Board.QUIETS, QUIETS);
+                        break;
+                    }
+
+                    // A KILLER FROM A SIBLING IS ONLY PLAYED IF IT IS STILL A QUIET MOVE HERE
+                    final int killer = index++ == 0 ? killerFirst : killerSecond;
+                    if (killer != 0 && killer != hashMove && board.getPseudoMove(killer) == killer && board.isLegal(killer, checkers, pinned)) return killer;
+                    break;
+
+                case QUIETS:
+                    final int quiet = pick();
+                    if (quiet != 0) return quiet;
+                    stage = DONE;
+                    break;
+
+                default:
+                    return 0;
+            }
+        }
+    }
+
+    private final void generate(final int kinds, final int next)
+    {
+        count = board.getPseudoMoves(moves, kinds);
+        index = 0;
+        stage = next;
+
+        // EACH STAGE IS SHORT AND MOSTLY ORDERED ALREADY, SO AN INSERTION SORT IS CHEAPEST
+        for (int i = 0; i < count; i++)
+        {
+            final int move = moves[i];
+            final int score = getScore(move);
+            int j = i - 1;
+
+            for (; j >= 0 && scores[j] < score; j--)
+            {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+            }
+
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    private final int pick()
+    {
+        while (index < count)
+        {
+            final int move = moves[index++];
+
+            if (move != hashMove && (stage != QUIETS || (move != killerFirst && move != killerSecond)) && board.isLegal(move, checkers, pinned)) return move;
+        }
+
+        return 0;
+    }
+
+    private final int getScore(final int move)
+    {
+        // MOST VALUABLE VICTIM FIRST, THEN LEAST VALUABLE ATTACKER
+        if (Move.isCapture(move) || Move.getPromotion(move) != 0) {
+            final int victim = board.getPiece(Move.getTo(move)) == Position.EMPTY ? Position.PAWN : Position.getKind(board.getPiece(Move.getTo(move))); // ENPASSANT OR PROMOTION
+            return (victim + Move.getPromotion(move)) * 8 - Position.getKind(board.getPiece(Move.getFrom(move)));
+        }
+
+        return history[board.getSide().ordinal()][Move.getFrom(move)][Move.getTo(move)];
+    }
+}
\ No newline at end of file
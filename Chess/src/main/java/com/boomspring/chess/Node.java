@@ -1,122 +1,446 @@
 package com.boomspring.chess;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
 import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
 
 public final class Node
 {
-    private final Game.Turn currentState;
-    private final ImmutableList<Player> players = ImmutableList.of(UI.getGame().getCurrentPlayer(), UI.getGame().getNextPlayer());
-    private final ImmutableList<Node> children;
-    private final int currentDepth;
-    private final int requiredDepth;
+    protected static final int INFINITY = 32000;
+    protected static final int MATE = 31000;
+    protected static final int MAX_PLY = 128;
+
+    protected static final int PAWN_ENTRIES = 1 << 16;
+
+    private static final int HISTORY_LIMIT = 1 << 16;
+    private static final int DELTA_MARGIN = 2 * PieceSquare.getValue(Position.PAWN);
+    private static final int[] FUTILITY_MARGINS = {0, 125, 300};
+    private static final int VERIFICATION_PHASE = 4;
+    private static final int POLL_INTERVAL = 1 << 10;
+    private static final int[][] REDUCTIONS = IntStream.range(0, MAX_PLY).mapToObj(depth -> IntStream.range(0, Board.MAX_MOVES).map(played -> depth == 0 || played == 0 ? 0 : (int) (0.75 + Math.log(depth) * Math.log(played) / 2.25)).toArray()).toArray(int[][]::new);
+
+    private final Board board;
+    private final TranspositionTable table;
+    private final PawnTable pawns;
+    private final Set<Pruning> pruning;
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][][] history = new int[2][64][64];
+    private final MovePicker[] pickers;
+    private final int[][] variations = new int[MAX_PLY][MAX_PLY];
+    private final int[] lengths = new int[MAX_PLY];
+    private long deadline = Long.MAX_VALUE;
+    private long nodes;
+    private volatile boolean stopped;
+
+    public Node(final Position position, final TranspositionTable table)
+    {
+        this(position, table, new PawnTable(PAWN_ENTRIES), EnumSet.allOf(Pruning.class));
+    }
+
+    protected Node(final Position position, final TranspositionTable table, final PawnTable pawns, final Set<Pruning> pruning)
+    {
+        this.board = new Board(position);
+        this.table = table;
+        this.pawns = pawns;
+        this.pruning = pruning.isEmpty() ? EnumSet.noneOf(Pruning.class) : EnumSet.copyOf(pruning);
+        this.pickers = IntStream.range(0, MAX_PLY).mapToObj(ply -> new MovePicker(board, killers[ply], history)).toArray(MovePicker[]::new);
+    }
 
-    public Node(final Game game, final int requiredDepth)
+    protected final void setDeadline(final long deadline)
     {
-        this.currentState = game.getCurrentTurn();
-        this.currentDepth = 0;
-        this.requiredDepth = requiredDepth;
-        this.children = calculateChildren();
+        this.deadline = deadline;
     }
 
-    private Node(final Game.Turn turn, final int currentDepth, final int requiredDepth)
+    protected final void stop()
     {
-        this.currentState = turn;
-        this.currentDepth = currentDepth;
-        this.requiredDepth = requiredDepth;
-        this.children = calculateChildren();
+        this.stopped = true;
     }
 
-    protected final Game.Turn getCurrentState()
+    protected final boolean isStopped()
     {
-        return currentState;
+        return stopped;
     }
 
-    protected final ImmutableList<Node> getChildren()
+    protected final void clear()
     {
-        return children;
+        // FORGETS THE MOVE ORDERING LEARNED SO FAR, SO THE NEXT SEARCH BEHAVES LIKE ONE FROM A NEW NODE
+        Arrays.stream(killers).forEach(killer -> Arrays.fill(killer, 0));
+        Arrays.stream(history).flatMap(Arrays::stream).forEach(scores -> Arrays.fill(scores, 0));
     }
 
-    private final ImmutableList<Node> calculateChildren()
+    protected final long getNodes()
     {
-        if (currentDepth < requiredDepth)
+        return nodes;
+    }
+
+    protected final Result search(final int requiredDepth, final int hint)
+    {
+        return search(requiredDepth, hint, -INFINITY, INFINITY);
+    }
+
+    protected final Result search(final int requiredDepth, final int hint, final int alpha, final int beta)
+    {
+        final List<Integer> best = new ArrayList<>();
+        final MovePicker picker = pickers[0];
+        int value = -INFINITY;
+
+        lengths[0] = 0;
+        picker.reset(hint);
+
+        for (int move = picker.next(); move != 0; move = picker.next())
         {
-            return currentState.getPotentialTurns(players.get(currentDepth % 2)).map(x -> {
-                return new Node(x, currentDepth + 1, requiredDepth);
-            }).collect(ImmutableList.toImmutableList());
-        } else return ImmutableList.of();
+            // EQUAL MOVES MUST RETURN EXACT SCORES FOR THE RANDOM TIE BREAK
+            final int lower = Math.max(alpha, value - 1);
+            int score;
+
+            board.makeMove(move);
+
+            if (best.isEmpty()) {
+                score = -negaMax(requiredDepth - 1, 1, -beta, -lower, true);
+            } else {
+                score = -negaMax(requiredDepth - 1, 1, -lower - 1, -lower, true);
+                if (score > lower && score < beta) score = -negaMax(requiredDepth - 1, 1, -beta, -lower, true);
+            }
+
+            board.unmakeMove();
+
+            if (stopped) break;
+
+            if (score > value)
+            {
+                value = score;
+                best.clear();
+                updateVariation(0, move);
+            }
+
+            if (score == value) best.add(move);
+            if (value >= beta) break;
+        }
+
+        if (best.isEmpty())
+        {
+            value = board.isChecked(board.getSide()) ? -MATE : 0;
+        }
+        else if (!stopped)
+        {
+            table.store(board.getKey(), best.get(0), toTable(value, 0), requiredDepth, value <= alpha ? TranspositionTable.UPPER : value >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT);
+        }
+
+        return new Result(requiredDepth, !stopped, value, ImmutableList.copyOf(best), ImmutableList.copyOf(Ints.asList(Arrays.copyOf(variations[0], lengths[0]))));
     }
 
-    protected final int miniMax(int alpha, int beta)
+    private final int negaMax(final int depth, final int ply, int alpha, final int beta, final boolean nullable)
     {
-        int value;
+        final int alphaOriginal = alpha;
+        int value = -INFINITY;
+        int best = 0;
+
+        lengths[ply] = ply;
 
-        if (currentDepth == requiredDepth || children.isEmpty())
+        if (board.isRepetition() || board.getHalfMoves() >= 100)
         {
-            return (players.get(0).getColour().equals(Colour.WHITE) ? 1 : -1) * currentState.calculateValue();
+            return 0;
         }
-        else
+
+        if (depth <= 0)
+        {
+            return quiesce(ply, alpha, beta);
+        }
+
+        if (poll())
         {
-            if (currentDepth % 2 == 0)
+            return 0;
+        }
+
+        if (ply >= MAX_PLY - 1)
+        {
+            return evaluate();
+        }
+
+        // TRANSPOSITION TABLE ENTRIES ARE STORED FROM THE SIDE TO MOVE
+        final long entry = table.probe(board.getKey());
+        final int hashMove = entry == 0 ? 0 : TranspositionTable.getMove(entry);
+
+        if (entry != 0 && TranspositionTable.getDepth(entry) >= depth)
+        {
+            final int score = fromTable(TranspositionTable.getScore(entry), ply);
+            final int bound = TranspositionTable.getBound(entry);
+
+            if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && score >= beta) || (bound == TranspositionTable.UPPER && score <= alpha))
             {
-                value = -10000;
+                return score;
+            }
+        }
 
-                for (final Node child : children)
-                {
-                    value = Math.max(value, child.miniMax(alpha, beta));
-                    alpha = Math.max(alpha, value);
-                    if (alpha >= beta) break;
-                }
+        final boolean checked = board.getCheckers() != 0;
+        final int eval = checked || !pruning.contains(depth < FUTILITY_MARGINS.length ? Pruning.FUTILITY : Pruning.NULL_MOVE) ? -INFINITY : evaluate();
+
+        // PASSING IS SO BAD THAT IF IT STILL BEATS BETA, A REAL MOVE WILL TOO
+        if (pruning.contains(Pruning.NULL_MOVE) && nullable && !checked && depth >= 3 && eval >= beta && Math.abs(beta) < MATE - MAX_PLY && board.hasPieces(board.getSide()))
+        {
+            final int reduction = depth > 6 ? 3 : 2;
+
+            board.makeNullMove();
+            final int score = -negaMax(depth - 1 - reduction, ply + 1, -beta, -beta + 1, false);
+            board.unmakeNullMove();
+
+            if (stopped) return 0;
+
+            // WITH LITTLE MATERIAL LEFT ZUGZWANG IS LIKELY, SO A REDUCED SEARCH WITHOUT PASSING MUST AGREE
+            if (score >= beta && (board.getPhase() > VERIFICATION_PHASE || negaMax(depth - 1 - reduction, ply, beta - 1, beta, false) >= beta))
+            {
+                return beta;
+            }
 
-                return value;
+            lengths[ply] = ply;
+        }
+
+        final boolean futile = pruning.contains(Pruning.FUTILITY) && !checked && depth < FUTILITY_MARGINS.length && eval + FUTILITY_MARGINS[depth] <= alpha && Math.abs(alpha) < MATE - MAX_PLY;
+
+        // CHILDREN ARE ONLY GENERATED ONCE THE TABLE CANNOT ANSWER, AND ONLY STAGE BY STAGE
+        final MovePicker picker = pickers[ply];
+        int played = 0;
+
+        picker.reset(hashMove);
+
+        for (int move = picker.next(); move != 0; move = picker.next())
+        {
+            final boolean quiet = !Move.isCapture(move) && Move.getPromotion(move) == 0;
+
+            played++;
+            board.makeMove(move);
+
+            final boolean checking = board.getCheckers() != 0;
+            int score;
+
+            if (futile && quiet && !checking && played > 1) { // FUTILITY PRUNING
+                board.unmakeMove();
+                value = Math.max(value, eval + FUTILITY_MARGINS[depth]);
+                continue;
             }
-            else
+
+            final int reduction = pruning.contains(Pruning.LATE_MOVE_REDUCTION) && quiet && !checked && !checking && depth >= 3 && played > 3 ? REDUCTIONS[depth][played] : 0;
+
+            // AFTER THE FIRST MOVE A NULL WINDOW ONLY PROVES A MOVE IS NO BETTER, LATE QUIET ONES AT REDUCED DEPTH
+            if (played == 1) {
+                score = -negaMax(depth - 1, ply + 1, -beta, -alpha, true);
+            } else {
+                score = -negaMax(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, true);
+                if (score > alpha && reduction > 0) score = -negaMax(depth - 1, ply + 1, -alpha - 1, -alpha, true);
+                if (score > alpha && score < beta) score = -negaMax(depth - 1, ply + 1, -beta, -alpha, true);
+            }
+
+            board.unmakeMove();
+
+            if (score > value)
             {
-                value = 10000;
+                value = score;
+                best = move;
 
-                for (final Node child : children)
+                if (score > alpha)
                 {
-                    value = Math.min(value, child.miniMax(alpha, beta));
-                    beta = Math.min(beta, value);
-                    if (alpha >= beta) break;
+                    alpha = score;
+                    updateVariation(ply, move);
                 }
+            }
 
-                return value;
+            if (alpha >= beta && !Move.isCapture(move) && Move.getPromotion(move) == 0)
+            {
+                updateQuiet(ply, move, depth);
             }
+
+            if (alpha >= beta || stopped) break;
         }
+
+        if (stopped)
+        {
+            return 0;
+        }
+
+        if (played == 0)
+        {
+            return board.isChecked(board.getSide()) ? -MATE + ply : 0;
+        }
+
+        final int bound = value <= alphaOriginal ? TranspositionTable.UPPER : value >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(board.getKey(), best, toTable(value, ply), depth, bound);
+
+        return value;
     }
 
-    protected final int miniMax()
+    private final int quiesce(final int ply, int alpha, final int beta)
     {
-        int value;
+        lengths[ply] = ply;
 
-        if (currentDepth == requiredDepth || children.isEmpty())
+        if (poll() || ply >= MAX_PLY - 1)
         {
-            return currentState.calculateValue();
+            return stopped ? 0 : evaluate();
         }
-        else
+
+        // A SIDE IN CHECK CANNOT STAND PAT, SO EVERY EVASION IS SEARCHED INSTEAD
+        final boolean checked = board.getCheckers() != 0;
+        final int standPat = checked ? -INFINITY : evaluate();
+        final MovePicker picker = pickers[ply];
+        int value = standPat;
+        int played = 0;
+
+        if (value >= beta)
         {
-            if (currentDepth % 2 == 0)
+            return value;
+        }
+
+        alpha = Math.max(alpha, value);
+        picker.reset(0, !checked);
+
+        for (int move = picker.next(); move != 0; move = picker.next())
+        {
+            played++;
+
+            // EVEN WINNING THE CAPTURED PIECE OUTRIGHT WOULD NOT RAISE ALPHA
+            if (!checked && standPat + getGain(move) + DELTA_MARGIN <= alpha) continue;
+
+            board.makeMove(move);
+            final int score = -quiesce(ply + 1, -beta, -alpha);
+            board.unmakeMove();
+
+            if (score > value)
             {
-                value = -10000;
+                value = score;
 
-                for (final Node child : children)
+                if (score > alpha)
                 {
-                    value = Math.max(value, child.miniMax());
+                    alpha = score;
+                    updateVariation(ply, move);
                 }
-
-                return value;
             }
-            else
-            {
-                value = 10000;
 
-                for (final Node child : children)
+            if (alpha >= beta || stopped) break;
+        }
+
+        return checked && played == 0 ? -MATE + ply : value;
+    }
+
+    private final boolean poll()
+    {
+        // THE CLOCK AND THE THREAD ARE ONLY READ EVERY FEW NODES, WHICH BOUNDS HOW LONG A STOP TAKES
+        if ((++nodes & POLL_INTERVAL - 1) == 0 && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted()))
+        {
+            stopped = true;
+        }
+
+        return stopped;
+    }
+
+    private final int getGain(final int move)
+    {
+        final int victim = board.getPiece(Move.getTo(move));
+        final int promotion = Move.getPromotion(move);
+        int gain = promotion == 0 ? 0 : PieceSquare.getValue(promotion) - PieceSquare.getValue(Position.PAWN);
+
+        if (victim != Position.EMPTY) gain += PieceSquare.getValue(Position.getKind(victim));
+        else if (Move.isCapture(move)) gain += PieceSquare.getValue(Position.PAWN); // ENPASSANT
+
+        return gain;
+    }
+
+    private final void updateQuiet(final int ply, final int move, final int depth)
+    {
+        if (killers[ply][0] != move)
+        {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+
+        final int[] counters = history[board.getSide().ordinal()][Move.getFrom(move)];
+        counters[Move.getTo(move)] += depth * depth;
+
+        // HISTORY IS HALVED BEFORE IT CAN OUTWEIGH WHAT NEWER CUTOFFS TEACH
+        if (counters[Move.getTo(move)] >= HISTORY_LIMIT)
+        {
+            for (final int[][] side : history)
+            {
+                for (final int[] from : side)
                 {
-                    value = Math.min(value, child.miniMax());
+                    for (int to = 0; to < 64; to++) from[to] /= 2;
                 }
-
-                return value;
             }
         }
     }
+
+    private final void updateVariation(final int ply, final int move)
+    {
+        variations[ply][ply] = move;
+        System.arraycopy(variations[ply + 1], ply + 1, variations[ply], ply + 1, lengths[ply + 1] - ply - 1);
+        lengths[ply] = Math.max(lengths[ply + 1], ply + 1);
+    }
+
+    private final int evaluate()
+    {
+        return (board.getSide().equals(Colour.WHITE) ? 1 : -1) * board.calculateValue(pawns);
+    }
+
+    private static final int toTable(final int score, final int ply)
+    {
+        return score > MATE - 256 ? score + ply : score < -MATE + 256 ? score - ply : score;
+    }
+
+    private static final int fromTable(final int score, final int ply)
+    {
+        return score > MATE - 256 ? score - ply : score < -MATE + 256 ? score + ply : score;
+    }
+
+    protected static final class Result
+    {
+        private final int depth;
+        private final boolean complete;
+        private final int score;
+        private final ImmutableList<Integer> moves;
+        private final ImmutableList<Integer> variation;
+
+        private Result(final int depth, final boolean complete, final int score, final ImmutableList<Integer> moves, final ImmutableList<Integer> variation)
+        {
+            this.depth = depth;
+            this.complete = complete;
+            this.score = score;
+            this.moves = moves;
+            this.variation = variation;
+        }
+
+        protected final int getDepth()
+        {
+            return depth;
+        }
+
+        protected final int getCompletedDepth()
+        {
+            // A STOPPED ITERATION ONLY VOUCHES FOR THE ONE BEFORE IT
+            return complete ? depth : depth - 1;
+        }
+
+        protected final int getScore()
+        {
+            return score;
+        }
+
+        protected final int getMove()
+        {
+            return moves.isEmpty() ? 0 : moves.get(0);
+        }
+
+        protected final ImmutableList<Integer> getMoves()
+        {
+            return moves;
+        }
+
+        protected final ImmutableList<Integer> getVariation()
+        {
+            return variation;
+        }
+    }
 }
\ No newline at end of file
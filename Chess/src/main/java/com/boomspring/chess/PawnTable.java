@@ -0,0 +1,135 @@
+package com.boomspring.chess;
+
+import java.util.stream.IntStream;
+
+public final class PawnTable
+{
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int BACKWARD_MIDDLEGAME = -8;
+    private static final int BACKWARD_ENDGAME = -10;
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 100, 150, 0};
+    private static final int[] SHELTER = {0, 12, 6};
+
+    private static final long[] FILES = IntStream.range(0, 8).mapToLong(column -> 0x0101010101010101L << column).toArray();
+    private static final long[] NEIGHBOURS = IntStream.range(0, 8).mapToLong(column -> (column > 0 ? FILES[column - 1] : 0) | (column < 7 ? FILES[column + 1] : 0)).toArray();
+
+    // ROWS STRICTLY AHEAD OF A SQUARE FOR EACH COLOUR, BLACK ADVANCING DOWN THE BOARD
+    private static final long[][] AHEAD = IntStream.range(0, 2).mapToObj(colour -> IntStream.range(0, 64).mapToLong(square -> {
+        if (colour == Colour.WHITE.ordinal()) return (1L << (square / 8 * 8)) - 1;
+        else return square / 8 == 7 ? 0 : -1L << ((square / 8 + 1) * 8);
+    }).toArray()).toArray(long[][]::new);
+
+    private final long[] keys;
+    private final int[] scores;
+    private final int mask;
+    private long probes;
+    private long hits;
+
+    protected PawnTable(final int entries)
+    {
+        this.keys = new long[Integer.highestOneBit(Math.max(entries, 1))];
+        this.scores = new int[keys.length];
+        this.mask = keys.length - 1;
+    }
+
+    protected static final int getMiddlegame(final int score)
+    {
+        return score >> 16;
+    }
+
+    protected static final int getEndgame(final int score)
+    {
+        return (short) score;
+    }
+
+    protected final long getProbes()
+    {
+        return probes;
+    }
+
+    protected final long getHits()
+    {
+        return hits;
+    }
+
+    protected final int evaluate(final Board board)
+    {
+        // THE KING MOVES TOO OFTEN TO SHARE THE CACHE, SO ITS SHELTER IS ADDED AFTERWARDS
+        final int shelter = calculateShelter(board, Colour.WHITE) - calculateShelter(board, Colour.BLACK);
+        return probe(board) + (shelter << 16);
+    }
+
+    private final int probe(final Board board)
+    {
+        final long key = board.getPawnKey();
+        final int index = (int) key & mask;
+
+        probes++;
+
+        if (keys[index] == key)
+        {
+            hits++;
+            return scores[index];
+        }
+
+        final int middlegame = calculateStructure(board, Colour.WHITE, true) - calculateStructure(board, Colour.BLACK, true);
+        final int endgame = calculateStructure(board, Colour.WHITE, false) - calculateStructure(board, Colour.BLACK, false);
+
+        keys[index] = key;
+        scores[index] = middlegame << 16 | (endgame & 0xFFFF);
+
+        return scores[index];
+    }
+
+    private static final int calculateStructure(final Board board, final Colour colour, final boolean middlegame)
+    {
+        final long own = board.getPieces(colour, Position.PAWN);
+        final long enemy = board.getPieces(colour.opposite(), Position.PAWN);
+        final int code = Position.getCode(colour, Position.PAWN);
+        int total = 0;
+
+        for (long bits = own; bits != 0; bits &= bits - 1)
+        {
+            final int square = Long.numberOfTrailingZeros(bits);
+            final int column = square % 8;
+            final long ahead = AHEAD[colour.ordinal()][square];
+            final int rank = colour == Colour.WHITE ? 7 - square / 8 : square / 8;
+
+            final long behind = AHEAD[colour.opposite().ordinal()][square];
+
+            // ONLY THE REARMOST PAWN OF A FILE COUNTS AS DOUBLED, SO A TRIPLED FILE IS PENALISED ONCE
+            if ((own & FILES[column] & ahead) != 0 && (own & FILES[column] & behind) == 0) total += middlegame ? DOUBLED_MIDDLEGAME : DOUBLED_ENDGAME;
+
+            if ((own & NEIGHBOURS[column]) == 0) {
+                total += middlegame ? ISOLATED_MIDDLEGAME : ISOLATED_ENDGAME;
+            } else if ((own & NEIGHBOURS[column] & ~ahead) == 0 && (Tables.getAttacks(code, square + colour.setDirection(8)) & enemy) != 0) {
+                total += middlegame ? BACKWARD_MIDDLEGAME : BACKWARD_ENDGAME;
+            }
+
+            if ((enemy & (FILES[column] | NEIGHBOURS[column]) & ahead) == 0) total += middlegame ? PASSED_MIDDLEGAME[rank] : PASSED_ENDGAME[rank];
+        }
+
+        return total;
+    }
+
+    private static final int calculateShelter(final Board board, final Colour colour)
+    {
+        final int king = Long.numberOfTrailingZeros(board.getPieces(colour, Position.KING));
+        final long own = board.getPieces(colour, Position.PAWN);
+        final long files = FILES[king % 8] | NEIGHBOURS[king % 8];
+        int total = 0;
+
+        // PAWNS ONE OR TWO ROWS IN FRONT OF THE KING SHIELD IT
+        for (int distance = 1; distance < SHELTER.length; distance++)
+        {
+            final int row = king / 8 + colour.setDirection(8) / 8 * distance;
+            if (row >= 0 && row < 8) total += SHELTER[distance] * Long.bitCount(own & files & 0xFFL << (row * 8));
+        }
+
+        return total;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.boomspring.chess;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+public final class Perft
+{
+    // STANDARD TEST POSITIONS WITH THEIR PUBLISHED LEAF COUNTS BY DEPTH
+    private static final ImmutableMap<String, long[]> POSITIONS = ImmutableMap.<String, long[]>builder()
+        .put("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", new long[] {20, 400, 8902, 197281, 4865609, 119060324})
+        .put("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", new long[] {48, 2039, 97862, 4085603, 193690690})
+        .put("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", new long[] {14, 191, 2812, 43238, 674624, 11030083})
+        .put("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", new long[] {6, 264, 9467, 422333, 15833292})
+        .put("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", new long[] {44, 1486, 62379, 2103487, 89941194})
+        .put("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", new long[] {46, 2079, 89890, 3894594, 164075551})
+        .build();
+
+    private final Board board;
+    private final int[][] moves = new int[Node.MAX_PLY][Board.MAX_MOVES];
+
+    protected Perft(final Position position)
+    {
+        this.board = new Board(position);
+    }
+
+    public static final void run(final String... args)
+    {
+        final int depth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long nodes = 0;
+        long time = 0;
+        boolean passed = true;
+
+        for (final Map.Entry<String, long[]> entry : POSITIONS.entrySet())
+        {
+            final Perft perft = new Perft(new Position(entry.getKey()));
+
+            for (int i = 1; i <= Math.min(depth, entry.getValue().length); i++)
+            {
+                final long start = System.nanoTime();
+                final long count = perft.perft(i);
+                final long elapsed = System.nanoTime() - start;
+                final boolean correct = count == entry.getValue()[i - 1];
+
+                nodes += count;
+                time += elapsed;
+                passed &= correct;
+
+                System.out.println(String.format("%s %-80s depth %d: %12d (expected %12d) %8.0f knps", correct ? "PASS" : "FAIL", entry.getKey(), i, count, entry.getValue()[i - 1], count / Math.max(elapsed / 1e6, 1e-3)));
+            }
+        }
+
+        System.out.println(String.format("%s: %d nodes in %.0f ms, %.0f knps", passed ? "PASSED" : "FAILED", nodes, time / 1e6, nodes / Math.max(time / 1e6, 1e-3)));
+        if (!passed) System.exit(1);
+    }
+
+    public static final void divide(final String... args)
+    {
+        final Perft perft = new Perft(new Position(String.join(" ", Arrays.copyOfRange(args, 2, args.length))));
+        final ImmutableMap<String, Long> counts = perft.divide(Integer.parseInt(args[1]));
+
+        counts.forEach((move, count) -> System.out.println(move + ": " + count));
+        System.out.println("TOTAL: " + counts.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    protected final long perft(final int depth)
+    {
+        final int count = board.getMoves(moves[depth]);
+        long total = 0;
+
+        if (depth <= 1)
+        {
+            return depth == 1 ? count : 1;
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            board.makeMove(moves[depth][i]);
+            total += perft(depth - 1);
+            board.unmakeMove();
+        }
+
+        return total;
+    }
+
+    protected final ImmutableMap<String, Long> divide(final int depth)
+    {
+        final ImmutableMap.Builder<String, Long> counts = ImmutableMap.builder();
+
+        for (final int move : board.getMoves())
+        {
+            board.makeMove(move);
+            counts.put(Move.toString(move), perft(depth - 1));
+            board.unmakeMove();
+        }
+
+        return counts.build();
+    }
+}
\ No newline at end of file
@@ -2,10 +2,17 @@ package com.boomspring.chess;
 
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.Callable;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-public abstract class Player implements Callable<Game.Turn>
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public abstract class Player
 {
     private final Colour colour;
 
@@ -19,45 +26,157 @@ public abstract class Player implements Callable<Game.Turn>
         return colour;
     }
 
+    public abstract Game.Turn call(final Game game) throws InterruptedException;
+
+    public void stop()
+    {
+        // ONLY A PLAYER THAT THINKS BETWEEN TURNS HAS ANYTHING TO STOP
+    }
+
     public static final class Human extends Player
     {
+        private Game.Turn turn;
+
         protected Human(final Colour colour)
         {
             super(colour);
         }
 
-		@Override
-        public synchronized final Game.Turn call() throws InterruptedException
+        @Override
+        public synchronized final Game.Turn call(final Game game) throws InterruptedException
         {
             Thread.currentThread().setName("Human");
-            wait();
-			return UI.useTurn();
-		}
+
+            // THE UI HANDS THE CHOSEN TURN TO THIS PLAYER, WHICH ALSO SURVIVES A SPURIOUS WAKE UP
+            while (turn == null) wait();
+
+            final Game.Turn chosen = turn;
+            turn = null;
+            return chosen;
+        }
+
+        public synchronized final void play(final Game.Turn turn)
+        {
+            this.turn = turn;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized final void stop()
+        {
+            // A TURN LEFT OVER FROM A REPLACED GAME MUST NOT BE PLAYED IN THE NEXT ONE
+            turn = null;
+        }
     }
 
     public static final class AI extends Player
     {
         private final Random random = new Random();
         private final int depth;
+        private final long millis;
+        private final int hash;
+        private final int threads;
+        private final boolean ponder;
+        private Search search;
+        private ExecutorService ponderer;
+        private Future<Node.Result> pondering;
+        private long ponderKey;
 
         protected AI(final Colour colour, final int depth)
+        {
+            this(colour, depth, Long.MAX_VALUE, 16, 1);
+        }
+
+        protected AI(final Colour colour, final int depth, final long millis)
+        {
+            this(colour, depth, millis, 16, 1);
+        }
+
+        protected AI(final Colour colour, final int depth, final long millis, final int hash, final int threads)
+        {
+            this(colour, depth, millis, hash, threads, false);
+        }
+
+        protected AI(final Colour colour, final int depth, final long millis, final int hash, final int threads, final boolean ponder)
         {
             super(colour);
             this.depth = depth;
+            this.millis = millis;
+            this.hash = hash;
+            this.threads = threads;
+            this.ponder = ponder;
         }
 
         @Override
-        public synchronized final Game.Turn call() throws InterruptedException
+        public synchronized final Game.Turn call(final Game game) throws InterruptedException
         {
             Thread.currentThread().setName("AI");
 
-            final Node tree = new Node(UI.getGame(), depth);
-            final int value = tree.miniMax(-10000, 10000);
-            final List<Node> list = tree.getChildren().stream().filter(n -> n.miniMax(-10000, 10000) == value).collect(Collectors.toList());
+            if (search == null) search = new Search(new TranspositionTable(hash), threads);
+
+            final Position position = game.getCurrentTurn().getPosition();
+            final Node.Result pondered = stopPondering();
+
+            // A PONDER HIT THAT ALREADY COMPLETED THE DEPTH ASKED FOR IS PLAYED AT ONCE, ANYTHING ELSE STILL FINDS THE TABLE WARM
+            final boolean hit = pondered != null && ponderKey == new Board(position).getKey() && pondered.getCompletedDepth() >= depth && !pondered.getMoves().isEmpty();
+            final Node.Result result = hit ? pondered : search.search(position, depth, millis);
+
+            // THE SEARCH RETURNS EARLY WHEN THE GAME IS REPLACED, AND ITS MOVE IS NO LONGER WANTED
+            if (Thread.interrupted()) throw new InterruptedException();
+
+            final List<Integer> list = result.getMoves();
+            final int move = list.get(random.nextInt(list.size()));
+
+            System.out.println("PLAYER: " + game.getCurrentPlayer().getColour().name() + ", CURRENT BOARD VALUE: " + result.getScore() + String.format(", PAWN CACHE HITS: %.1f%%", search.getPawnHitRate() * 100) + (hit ? ", PONDER HIT" : ""));
+
+            final Game.Turn turn = game.new Turn(game.getCurrentTurn(), move);
+            if (ponder) startPondering(turn.getPosition(), move, result.getVariation());
+            return turn;
+        }
+
+        @Override
+        public synchronized final void stop()
+        {
+            stopPondering();
+
+            // THE PLAYER MAY JOIN A LATER GAME, WHICH STARTS A FRESH THREAD ON ITS FIRST PONDER
+            if (ponderer != null) ponderer.shutdownNow();
+            ponderer = null;
+        }
+
+        private final void startPondering(final Position position, final int move, final List<Integer> variation)
+        {
+            // THE EXPECTED REPLY IS SEARCHED WHEN THE VARIATION FOLLOWS THE MOVE PLAYED, OTHERWISE EVERY REPLY IS
+            final Position target = variation.size() > 1 && variation.get(0) == move ? position.play(variation.get(1)) : position;
+
+            if (new Board(target).getMoves().length == 0) return;
+            if (ponderer == null) ponderer = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("Ponder").setDaemon(true).build());
+
+            ponderKey = new Board(target).getKey();
+            pondering = ponderer.submit(() -> search.search(target, Node.MAX_PLY - 1, Long.MAX_VALUE));
+        }
+
+        private final Node.Result stopPondering()
+        {
+            if (pondering == null) return null;
+
+            final Future<Node.Result> future = pondering;
+            pondering = null;
 
-            System.out.println("PLAYER: " + UI.getGame().getCurrentPlayer().getColour().name() + ", CURRENT BOARD VALUE: " + value);
+            // THE PONDER SEARCH MAY NOT HAVE STARTED ITS NODES YET, SO KEEP ASKING UNTIL IT RETURNS
+            while (true)
+            {
+                search.stop();
 
-            return list.get(random.nextInt(list.size())).getCurrentState();
+                try {
+                    return Uninterruptibles.getUninterruptibly(future, 10, TimeUnit.MILLISECONDS);
+                } catch (final TimeoutException e) {
+                    continue;
+                } catch (final ExecutionException e) {
+                    e.printStackTrace();
+                    return null;
+                }
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+package com.boomspring.chess;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public final class Position
+{
+    protected static final int PAWN = 0;
+    protected static final int KNIGHT = 1;
+    protected static final int BISHOP = 2;
+    protected static final int ROOK = 3;
+    protected static final int QUEEN = 4;
+    protected static final int KING = 5;
+    protected static final int EMPTY = -1;
+
+    private static final int[] CASTLING_ROOKS = {7, 0, 63, 56};
+
+    private final long[] pieces;
+    private final Colour side;
+    private final int castling;
+    private final int enPassant;
+    private final int halfMoves;
+    private final int fullMoves;
+    private final long[] keys;
+
+    protected Position()
+    {
+        this.pieces = new long[] {
+            0x000000000000FF00L, 0x0000000000000042L, 0x0000000000000024L, 0x0000000000000081L, 0x0000000000000008L, 0x0000000000000010L,
+            0x00FF000000000000L, 0x4200000000000000L, 0x2400000000000000L, 0x8100000000000000L, 0x0800000000000000L, 0x1000000000000000L
+        };
+        this.side = Colour.WHITE;
+        this.castling = 0b1111;
+        this.enPassant = EMPTY;
+        this.halfMoves = 0;
+        this.fullMoves = 1;
+        this.keys = new long[0];
+    }
+
+    protected Position(final String fen)
+    {
+        final String[] fields = fen.trim().split("\\s+");
+        final String[] rows = fields[0].split("/", -1);
+
+        this.pieces = new long[12];
+
+        if (rows.length != 8) throw new IllegalArgumentException(fen);
+
+        // EVERY ROW MUST FILL EXACTLY EIGHT SQUARES, AND NO PAWN MAY STAND ON THE FIRST OR LAST ROW
+        for (int row = 0; row < 8; row++)
+        {
+            int column = 0;
+
+            for (final char c : rows[row].toCharArray())
+            {
+                if (c >= '1' && c <= '8') {
+                    column += c - '0';
+                } else {
+                    final int kind = "pnbrqk".indexOf(Character.toLowerCase(c));
+                    if (kind < 0 || column > 7 || (kind == PAWN && (row == 0 || row == 7))) throw new IllegalArgumentException(fen);
+                    pieces[getCode(Character.isUpperCase(c) ? Colour.WHITE : Colour.BLACK, kind)] |= 1L << (row * 8 + column++);
+                }
+            }
+
+            if (column != 8) throw new IllegalArgumentException(fen);
+        }
+
+        if (Long.bitCount(pieces[getCode(Colour.WHITE, KING)]) != 1 || Long.bitCount(pieces[getCode(Colour.BLACK, KING)]) != 1) throw new IllegalArgumentException(fen);
+        if (fields.length > 1 && !fields[1].equals("w") && !fields[1].equals("b")) throw new IllegalArgumentException(fen);
+
+        this.side = fields.length > 1 && fields[1].equals("b") ? Colour.BLACK : Colour.WHITE;
+        this.castling = fields.length > 2 ? IntStream.range(0, 4).filter(i -> fields[2].indexOf("kqKQ".charAt(i)) >= 0 && isHome(pieces, i)).map(i -> 1 << i).sum() : 0;
+        this.enPassant = fields.length > 3 && !fields[3].equals("-") ? Move.getSquare(fields[3]) : EMPTY;
+
+        // THE PAWN THAT JUST PUSHED TWICE LEFT A SQUARE ON THE SIXTH ROW FOR WHITE TO TAKE, THE THIRD FOR BLACK
+        if (enPassant != EMPTY && enPassant / 8 != (side == Colour.WHITE ? 2 : 5)) throw new IllegalArgumentException(fen);
+
+        this.halfMoves = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+        this.fullMoves = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+        this.keys = new long[0];
+    }
+
+    protected Position(final Board board)
+    {
+        this.pieces = IntStream.range(0, 12).mapToLong(i -> board.getPieces(getColour(i), getKind(i))).toArray();
+        this.side = board.getSide();
+        this.castling = board.getCastling();
+        this.enPassant = board.getEnPassant();
+        this.halfMoves = board.getHalfMoves();
+        this.fullMoves = board.getFullMoves();
+        this.keys = board.getKeys();
+    }
+
+    private static final boolean isHome(final long[] pieces, final int right)
+    {
+        // A CASTLING RIGHT ONLY SURVIVES WHILE ITS KING AND ROOK STAND ON THEIR STARTING SQUARES
+        final Colour colour = right < 2 ? Colour.BLACK : Colour.WHITE;
+        return (pieces[getCode(colour, KING)] & 1L << (right < 2 ? 4 : 60)) != 0 && (pieces[getCode(colour, ROOK)] & 1L << CASTLING_ROOKS[right]) != 0;
+    }
+
+    protected static final int getCode(final Colour colour, final int kind)
+    {
+        return colour.ordinal() * 6 + kind;
+    }
+
+    protected static final Colour getColour(final int code)
+    {
+        return Colour.values()[code / 6];
+    }
+
+    protected static final int getKind(final int code)
+    {
+        return code % 6;
+    }
+
+    protected final long getPieces(final Colour colour, final int kind)
+    {
+        return pieces[getCode(colour, kind)];
+    }
+
+    protected final long getOccupancy(final Colour colour)
+    {
+        final int offset = getCode(colour, PAWN);
+        return pieces[offset] | pieces[offset + 1] | pieces[offset + 2] | pieces[offset + 3] | pieces[offset + 4] | pieces[offset + 5];
+    }
+
+    protected final long getOccupancy()
+    {
+        return getOccupancy(Colour.BLACK) | getOccupancy(Colour.WHITE);
+    }
+
+    protected final int getPiece(final int square)
+    {
+        for (int code = 0; code < 12; code++)
+        {
+            if ((pieces[code] & (1L << square)) != 0) return code;
+        }
+
+        return EMPTY;
+    }
+
+    public final Colour getSide()
+    {
+        return side;
+    }
+
+    protected final int getCastling()
+    {
+        return castling;
+    }
+
+    protected final int getEnPassant()
+    {
+        return enPassant;
+    }
+
+    public final int getHalfMoves()
+    {
+        return halfMoves;
+    }
+
+    public final int getFullMoves()
+    {
+        return fullMoves;
+    }
+
+    protected final long[] getKeys()
+    {
+        return keys.clone();
+    }
+
+    protected final boolean isPromotion(final int positionFrom, final int positionTo)
+    {
+        final int code = getPiece(positionFrom);
+        return code != EMPTY && getKind(code) == PAWN && positionTo / 8 == (getColour(code) == Colour.BLACK ? 7 : 0);
+    }
+
+    protected final Position play(final int move)
+    {
+        final Board board = new Board(this);
+        board.makeMove(move);
+        return new Position(board);
+    }
+
+    protected final String toFen()
+    {
+        final StringBuilder fen = new StringBuilder();
+
+        for (int square = 0; square < 64; square++)
+        {
+            final int code = getPiece(square);
+
+            if (code == EMPTY) {
+                // RUNS OF EMPTY SQUARES ARE COUNTED, EXTENDING THE PREVIOUS DIGIT ON THE SAME ROW
+                final char last = fen.length() == 0 ? '/' : fen.charAt(fen.length() - 1);
+                if (Character.isDigit(last)) fen.setCharAt(fen.length() - 1, (char) (last + 1));
+                else fen.append('1');
+            } else {
+                final char c = "pnbrqk".charAt(getKind(code));
+                fen.append(getColour(code) == Colour.WHITE ? Character.toUpperCase(c) : c);
+            }
+
+            if (square % 8 == 7 && square != 63) fen.append('/');
+        }
+
+        // CASTLING BITS FOLLOW "kqKQ", WHILE FEN LISTS WHITE FIRST
+        final String rights = IntStream.of(2, 3, 0, 1).filter(i -> (castling & 1 << i) != 0).mapToObj(i -> String.valueOf("kqKQ".charAt(i))).collect(Collectors.joining());
+
+        return String.join(" ", fen, side == Colour.WHITE ? "w" : "b", rights.isEmpty() ? "-" : rights, enPassant == EMPTY ? "-" : Move.getName(enPassant), String.valueOf(halfMoves), String.valueOf(fullMoves));
+    }
+}
\ No newline at end of file
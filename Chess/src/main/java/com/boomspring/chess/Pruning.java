@@ -0,0 +1,6 @@
+package com.boomspring.chess;
+
+public enum Pruning
+{
+    NULL_MOVE, LATE_MOVE_REDUCTION, FUTILITY
+}
\ No newline at end of file
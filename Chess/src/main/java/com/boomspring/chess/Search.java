@@ -0,0 +1,216 @@
+package com.boomspring.chess;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public final class Search
+{
+    private static final int ASPIRATION = 25;
+
+    private final TranspositionTable table;
+    private final int threads;
+    private final ExecutorService helpers;
+    private final PawnTable[] pawns;
+    private final Set<Pruning> pruning;
+    private volatile List<Node> active = Collections.emptyList();
+    private volatile Listener listener = (result, nodes, millis) -> {};
+    private long nodes;
+
+    protected Search(final TranspositionTable table)
+    {
+        this(table, 1);
+    }
+
+    protected Search(final TranspositionTable table, final int threads)
+    {
+        this(table, threads, EnumSet.allOf(Pruning.class));
+    }
+
+    protected Search(final TranspositionTable table, final int threads, final Set<Pruning> pruning)
+    {
+        this.table = table;
+        this.threads = Math.max(1, threads);
+        this.pruning = pruning;
+        this.pawns = IntStream.range(0, this.threads).mapToObj(i -> new PawnTable(Node.PAWN_ENTRIES)).toArray(PawnTable[]::new);
+        this.helpers = this.threads == 1 ? null : Executors.newFixedThreadPool(this.threads - 1, new ThreadFactoryBuilder().setNameFormat("Helper-%d").setDaemon(true).build());
+    }
+
+    public static final void speedup(final String... args) throws Exception
+    {
+        final int depth = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        final int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        final Set<Pruning> pruning = args.length > 3 ? parsePruning(args[3]) : EnumSet.allOf(Pruning.class);
+        double base = 0;
+
+        // WARM UP THE JIT BEFORE ANYTHING IS TIMED
+        new Search(new TranspositionTable(64), 1, pruning).search(new Position(), depth, Long.MAX_VALUE);
+
+        System.out.println("THREADS\tTIME(ms)\tNODES\tSPEEDUP\tPAWN HITS");
+
+        for (int i = 1; i <= threads; i *= 2)
+        {
+            final Search search = new Search(new TranspositionTable(64), i, pruning);
+            final long start = System.nanoTime();
+            search.search(new Position(), depth, Long.MAX_VALUE);
+            final double millis = (System.nanoTime() - start) / 1e6;
+
+            if (i == 1) base = millis;
+            System.out.println(String.format("%d\t%.0f\t%d\t%.2f\t%.1f%%", i, millis, search.getNodes(), base / millis, search.getPawnHitRate() * 100));
+            search.shutdown();
+        }
+    }
+
+    protected static final Set<Pruning> parsePruning(final String names)
+    {
+        // A COMMA SEPARATED LIST OF PRUNING NAMES, OR "NONE"
+        final Set<Pruning> pruning = EnumSet.noneOf(Pruning.class);
+        Arrays.stream(names.split(",")).map(String::trim).filter(name -> !name.isEmpty() && !name.equalsIgnoreCase("NONE")).map(name -> Pruning.valueOf(name.toUpperCase())).forEach(pruning::add);
+
+        return pruning;
+    }
+
+    protected static final long allocate(final long remaining, final long increment, final int movesToGo)
+    {
+        // SPREAD THE CLOCK OVER THE REMAINING MOVES, NEVER MORE THAN HALF OF IT
+        final long millis = remaining / Math.max(movesToGo, 1) + increment * 3 / 4;
+        return Math.max(1, Math.min(millis, remaining / 2));
+    }
+
+    protected final long getNodes()
+    {
+        return nodes;
+    }
+
+    protected final void setListener(final Listener listener)
+    {
+        this.listener = listener;
+    }
+
+    protected final void stop()
+    {
+        active.forEach(Node::stop);
+    }
+
+    protected final double getPawnHitRate()
+    {
+        // CACHES LIVE AS LONG AS THE SEARCH, SO THIS COVERS EVERY MOVE IT HAS PLAYED
+        final long probes = Arrays.stream(pawns).mapToLong(PawnTable::getProbes).sum();
+        return probes == 0 ? 0 : (double) Arrays.stream(pawns).mapToLong(PawnTable::getHits).sum() / probes;
+    }
+
+    protected final void shutdown()
+    {
+        if (helpers != null) helpers.shutdownNow();
+    }
+
+    protected final Node.Result search(final Position position, final int depth, final long millis) throws InterruptedException
+    {
+        final long start = System.nanoTime();
+        final long deadline = millis == Long.MAX_VALUE ? Long.MAX_VALUE : start + millis * 1000000;
+        final Node node = new Node(position, table, pawns[0], pruning);
+
+        table.nextGeneration();
+
+        // LAZY SMP: HELPERS SEARCH THE SAME POSITION AND SHARE THE TABLE
+        final List<Node> nodes = IntStream.range(1, threads).mapToObj(i -> new Node(position, table, pawns[i], pruning)).collect(Collectors.toList());
+        this.active = ImmutableList.<Node>builder().add(node).addAll(nodes).build();
+
+        final List<Future<Node.Result>> futures = IntStream.range(0, nodes.size()).mapToObj(i -> helpers.submit(() -> {
+            nodes.get(i).setDeadline(deadline);
+            return iterate(nodes.get(i), 1 + i % 2, depth, start, millis, false);
+        })).collect(Collectors.toList());
+
+        final Node.Result result = iterate(node, 1, depth, start, millis, true);
+
+        nodes.forEach(Node::stop);
+
+        for (final Future<Node.Result> future : futures)
+        {
+            // THE HELPERS ARE ALREADY STOPPED, AND AN INTERRUPT MUST NOT LOSE THE MOVE FOUND SO FAR
+            try {
+                Uninterruptibles.getUninterruptibly(future);
+            } catch (final ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+
+        this.nodes = node.getNodes() + nodes.stream().mapToLong(Node::getNodes).sum();
+        this.active = Collections.emptyList();
+        return result;
+    }
+
+    private static final Node.Result aspire(final Node node, final int depth, final Node.Result previous)
+    {
+        int hint = previous == null ? 0 : previous.getMove();
+        int delta = ASPIRATION;
+        int alpha = -Node.INFINITY;
+        int beta = Node.INFINITY;
+
+        // SHALLOW AND MATE SCORES ARE TOO UNSTABLE TO GUESS A WINDOW AROUND
+        if (previous != null && depth >= 4 && Math.abs(previous.getScore()) < Node.MATE - Node.MAX_PLY)
+        {
+            alpha = previous.getScore() - delta;
+            beta = previous.getScore() + delta;
+        }
+
+        while (true)
+        {
+            final Node.Result result = node.search(depth, hint, alpha, beta);
+
+            // A STOPPED SEARCH STILL HAS A MOVE IF IT WAS SEARCHED TO THE END INSIDE THE WINDOW
+            if (node.isStopped()) return previous == null || (!result.getMoves().isEmpty() && result.getScore() > alpha) ? result : previous;
+
+            // WIDEN ONLY THE SIDE THAT FAILED, TWICE AS FAR EACH TIME
+            if (result.getScore() <= alpha && alpha > -Node.INFINITY) {
+                alpha = Math.max(result.getScore() - delta, -Node.INFINITY);
+            } else if (result.getScore() >= beta && beta < Node.INFINITY) {
+                beta = Math.min(result.getScore() + delta, Node.INFINITY);
+                hint = result.getMove();
+            } else return result;
+
+            delta *= 2;
+        }
+    }
+
+    private final Node.Result iterate(final Node node, final int first, final int depth, final long start, final long millis, final boolean report)
+    {
+        Node.Result result = null;
+
+        for (int i = first; i <= Math.min(depth, Node.MAX_PLY - 1); i++)
+        {
+            // THE FIRST ITERATION ALWAYS COMPLETES SO THERE IS A MOVE TO RETURN
+            if (result != null && millis != Long.MAX_VALUE) node.setDeadline(start + millis * 1000000);
+
+            final Node.Result current = aspire(node, i, result);
+
+            result = current;
+
+            if (node.isStopped()) break;
+            if (report) listener.update(result, active.stream().mapToLong(Node::getNodes).sum(), (System.nanoTime() - start) / 1000000);
+
+            // THE NEXT ITERATION WOULD NOT FINISH IN THE TIME LEFT
+            if (millis != Long.MAX_VALUE && (System.nanoTime() - start) * 2 > millis * 1000000) break;
+            if (result.getMoves().isEmpty() || Math.abs(result.getScore()) > Node.MATE - Node.MAX_PLY) break;
+        }
+
+        return result;
+    }
+
+    protected interface Listener
+    {
+        public abstract void update(final Node.Result result, final long nodes, final long millis);
+    }
+}
\ No newline at end of file
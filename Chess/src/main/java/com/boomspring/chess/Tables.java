@@ -0,0 +1,109 @@
+package com.boomspring.chess;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public final class Tables
+{
+    // ONE STEP FOR EACH LEAPER, A PAWN ONLY ATTACKS ITS TWO FORWARD DIAGONALS AND SLIDERS USE THE SLIDES
+    private static final int[][] STEPS = {
+        {7, 9},
+        {17, 15, 10, 6, -6, -10, -15, -17},
+        {},
+        {},
+        {},
+        {9, 8, 7, 1, -1, -7, -8, -9}
+    };
+
+    // BISHOP DIRECTIONS FIRST, THEN ROOK DIRECTIONS
+    private static final int[] DIRECTIONS = {9, 7, -7, -9, 8, 1, -1, -8};
+    private static final long[][] SLIDES = IntStream.range(0, 64).mapToObj(square -> Arrays.stream(DIRECTIONS).mapToLong(vector -> calculateSlide(square, vector)).toArray()).toArray(long[][]::new);
+    private static final long[][] ATTACKS = IntStream.range(0, 12).mapToObj(code -> IntStream.range(0, 64).mapToLong(square -> calculateAttacks(code, square)).toArray()).toArray(long[][]::new);
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINES = new long[64][64];
+
+    static
+    {
+        for (int square = 0; square < 64; square++)
+        {
+            for (int direction = 0; direction < 8; direction++)
+            {
+                final long line = SLIDES[square][direction] | SLIDES[square][direction < 4 ? 3 - direction : 11 - direction] | 1L << square;
+                long between = 0;
+
+                for (int i = square; isStep(i, DIRECTIONS[direction]); i += DIRECTIONS[direction])
+                {
+                    BETWEEN[square][i + DIRECTIONS[direction]] = between;
+                    LINES[square][i + DIRECTIONS[direction]] = line;
+                    between |= 1L << (i + DIRECTIONS[direction]);
+                }
+            }
+        }
+    }
+
+    private Tables()
+    {
+    }
+
+    protected static final long getAttacks(final int code, final int square)
+    {
+        return ATTACKS[code][square];
+    }
+
+    protected static final long getBishopAttacks(final int square, final long occupancy)
+    {
+        return getSlide(square, occupancy, 0) | getSlide(square, occupancy, 1) | getSlide(square, occupancy, 2) | getSlide(square, occupancy, 3);
+    }
+
+    protected static final long getRookAttacks(final int square, final long occupancy)
+    {
+        return getSlide(square, occupancy, 4) | getSlide(square, occupancy, 5) | getSlide(square, occupancy, 6) | getSlide(square, occupancy, 7);
+    }
+
+    protected static final long getBetween(final int positionFrom, final int positionTo)
+    {
+        return BETWEEN[positionFrom][positionTo];
+    }
+
+    protected static final long getLine(final int positionFrom, final int positionTo)
+    {
+        return LINES[positionFrom][positionTo];
+    }
+
+    private static final long getSlide(final int square, final long occupancy, final int direction)
+    {
+        final long slide = SLIDES[square][direction];
+        final long blockers = slide & occupancy;
+
+        if (blockers == 0) return slide;
+
+        // NEAREST BLOCKER IS THE LOWEST SQUARE ON INCREASING RAYS AND THE HIGHEST ON DECREASING ONES
+        final int blocker = DIRECTIONS[direction] > 0 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+        return slide ^ SLIDES[blocker][direction];
+    }
+
+    private static final long calculateSlide(final int square, final int vector)
+    {
+        long slide = 0;
+
+        for (int i = square; isStep(i, vector); i += vector)
+        {
+            slide |= 1L << (i + vector);
+        }
+
+        return slide;
+    }
+
+    private static final long calculateAttacks(final int code, final int square)
+    {
+        final int kind = Position.getKind(code);
+
+        return Arrays.stream(STEPS[kind]).map(step -> kind == Position.PAWN ? Position.getColour(code).setDirection(step) : step)
+            .filter(step -> isStep(square, step)).mapToLong(step -> 1L << (square + step)).reduce(0, (a, b) -> a | b);
+    }
+
+    private static final boolean isStep(final int positionCurrent, final int vector)
+    {
+        return positionCurrent + vector >= 0 && positionCurrent + vector < 64 && Math.abs((positionCurrent + vector) % 8 - positionCurrent % 8) <= 2;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.boomspring.chess;
+
+import java.util.Arrays;
+
+public final class TranspositionTable
+{
+    protected static final int EXACT = 1;
+    protected static final int LOWER = 2;
+    protected static final int UPPER = 3;
+    protected static final int MAX_MEGABYTES = 2048;
+
+    private final long[] entries;
+    private final int mask;
+    private volatile int generation;
+
+    protected TranspositionTable(final int megabytes)
+    {
+        // 2 SLOTS PER BUCKET, 2 LONGS PER SLOT, AND NO MORE THAN THE LARGEST SIZE ADVERTISED
+        final long buckets = Long.highestOneBit(Math.max(1L, Math.min(megabytes, MAX_MEGABYTES) * 1024L * 1024L / 32));
+        this.entries = new long[(int) buckets * 4];
+        this.mask = entries.length / 4 - 1;
+    }
+
+    protected static final int getMove(final long entry)
+    {
+        return (int) (entry & 0xFFFF);
+    }
+
+    protected static final int getScore(final long entry)
+    {
+        return (short) (entry >>> 16);
+    }
+
+    protected static final int getDepth(final long entry)
+    {
+        return (int) (entry >>> 32 & 0xFF);
+    }
+
+    protected static final int getBound(final long entry)
+    {
+        return (int) (entry >>> 40 & 0x3);
+    }
+
+    private static final int getGeneration(final long entry)
+    {
+        return (int) (entry >>> 42 & 0xFF);
+    }
+
+    protected final long probe(final long key)
+    {
+        final int index = ((int) key & mask) * 4;
+
+        for (int i = index; i < index + 4; i += 2)
+        {
+            final long entry = entries[i + 1];
+            if ((entries[i] ^ entry) == key && entry != 0) return entry;
+        }
+
+        return 0;
+    }
+
+    protected final void store(final long key, final int move, final int score, final int depth, final int bound)
+    {
+        final int index = ((int) key & mask) * 4;
+        final long previous = probe(key);
+        final long entry = (move == 0 ? getMove(previous) : move & 0xFFFF)
+            | (score & 0xFFFFL) << 16
+            | (long) Math.min(depth, 0xFF) << 32
+            | (long) bound << 40
+            | (long) generation << 42;
+
+        // DEPTH PREFERRED SLOT, THEN ALWAYS REPLACE SLOT
+        final long current = entries[index + 1];
+        final boolean preferred = (entries[index] ^ current) == key || depth >= getDepth(current) || getGeneration(current) != generation;
+        final int slot = preferred ? index : index + 2;
+
+        entries[slot] = key ^ entry;
+        entries[slot + 1] = entry;
+    }
+
+    protected final void nextGeneration()
+    {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    protected final void clear()
+    {
+        Arrays.fill(entries, 0);
+    }
+}
\ No newline at end of file
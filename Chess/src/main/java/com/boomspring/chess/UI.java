@@ -15,7 +15,9 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.IntStream;
@@ -36,7 +38,7 @@ public final class UI extends JFrame
     private static final AtomicReference<Game> game = new AtomicReference<>(new Game("Chess"));
     private static final JPanel board = new JPanel(new GridLayout(8, 8));
     private static final AtomicReference<JButton> stored = new AtomicReference<>();
-    private static final AtomicReference<Game.Turn> turn = new AtomicReference<>();
+    private static final Set<Integer> highlighted = ConcurrentHashMap.newKeySet();
 
     protected UI(final String title)
     {
@@ -62,7 +64,7 @@ public final class UI extends JFrame
         this.getJMenuBar().getMenu(0).getItem(2).addActionListener(changeGame.apply(ImmutableList.of(new Player.AI(Colour.BLACK, 3), new Player.AI(Colour.WHITE, 3))));
 
         // MIXED GAME BUTTON
-        this.getJMenuBar().getMenu(0).getItem(3).addActionListener(changeGame.apply(ImmutableList.of(new Player.AI(Colour.BLACK, 3), new Player.Human(Colour.WHITE))));
+        this.getJMenuBar().getMenu(0).getItem(3).addActionListener(changeGame.apply(ImmutableList.of(new Player.AI(Colour.BLACK, 3, Long.MAX_VALUE, 16, 1, true), new Player.Human(Colour.WHITE))));
 
         IntStream.range(0, 64).mapToObj(i -> game.get().getCurrentTurn().getBoard().get(i).getPiece().map(Piece::toString).orElse("--")).map(JButton::new).peek(board::add).forEach(x -> {
             x.setHorizontalAlignment(0);
@@ -87,10 +89,20 @@ public final class UI extends JFrame
                     else if (x.getBackground().equals(Color.RED)) // NEW MOVE
                     {
                         final List<Component> buttons = Arrays.asList(board.getComponents());
-                        turn.set(game.get().new Turn(game.get().getCurrentTurn(), buttons.indexOf(stored.getAndSet(null)), buttons.indexOf(x)));
-
-                        synchronized (game.get().getCurrentPlayer()) {
-                            game.get().getCurrentPlayer().notify();
+                        final Game.Turn current = game.get().getCurrentTurn();
+                        final Player player = game.get().getCurrentPlayer();
+                        final int positionFrom = buttons.indexOf(stored.getAndSet(null));
+                        final int positionTo = buttons.indexOf(x);
+
+                        // ONLY A HUMAN WAITS FOR A TURN FROM THE BOARD
+                        if (player instanceof Player.Human)
+                        {
+                            // PAWN PROMOTION
+                            if (current.getPosition().isPromotion(positionFrom, positionTo)) {
+                                Player.Human.class.cast(player).play(game.get().new Turn(current, positionFrom, positionTo, new Promotion(player).call().getKind()));
+                            } else {
+                                Player.Human.class.cast(player).play(game.get().new Turn(current, positionFrom, positionTo));
+                            }
                         }
                     }
                 }
@@ -103,11 +115,12 @@ public final class UI extends JFrame
                     final int index = buttons.indexOf(x);
                     final boolean correctPlayer = game.get().getCurrentTurn().getBoard().get(index).getPiece().map(Piece::getPlayer).filter(game.get().getCurrentPlayer()::equals).isPresent();
 
-                    if (Objects.equals(stored.get(), null) && correctPlayer && game.get().getCurrentTurn().getPotentialTurns(index).mapToInt(x -> x.getPositionTo().orElseThrow()).mapToObj(buttons::get).peek(i -> {
+                    if (Objects.equals(stored.get(), null) && correctPlayer && game.get().getCurrentTurn().getDestinations(index).stream().peek(highlighted::add).map(buttons::get).peek(i -> {
                         i.setBackground(Color.RED);
                         i.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
                     }).count() > 0)
                     {
+                        highlighted.add(index);
                         x.setBackground(Color.PINK);
                         x.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
                     }
@@ -115,11 +128,17 @@ public final class UI extends JFrame
 
                 @Override
                 public final void mouseExited(final MouseEvent e) {
-                    UI.refreshBoard();
+                    // ONLY THE SQUARES LIT BY THE HOVER ARE PAINTED BACK
+                    if (Objects.equals(stored.get(), null))
+                    {
+                        highlighted.forEach(UI::paintTile);
+                        highlighted.clear();
+                    }
                 }
             });
         });
 
+        game.get().setListener(UI::refreshBoard);
         UI.refreshBoard();
         this.setVisible(true);
     }
@@ -139,34 +158,36 @@ public final class UI extends JFrame
         return position / 8;
     }
 
-    public static final Game.Turn useTurn()
-    {
-        return turn.getAndSet(null);
-    }
-
     public static final void refreshBoard()
     {
         if (Objects.equals(stored.get(), null))
         {
             for(Integer i = 0; i < 64; i++)
             {
-                final JButton button = JButton.class.cast(board.getComponent(i));
-                button.setCursor(Cursor.getDefaultCursor());
-                button.setText(game.get().getCurrentTurn().getBoard().get(i).getPiece().map(Piece::toString).orElse("--"));
-
-                if (game.get().getCurrentTurn().getPositionFrom().filter(i::equals).isPresent()) {
-                    button.setBackground(Color.CYAN);
-                } else if (game.get().getCurrentTurn().getPositionTo().filter(i::equals).isPresent()) {
-                    button.setBackground(Color.YELLOW);
-                } else switch (Math.floorMod(UI.getRow(i) + i, 2)) {
-                    case 0:
-                        button.setBackground(Color.WHITE);
-                        break;
-                    case 1:
-                        button.setBackground(null);
-                        break;
-                }
+                JButton.class.cast(board.getComponent(i)).setText(game.get().getCurrentTurn().getBoard().get(i).getPiece().map(Piece::toString).orElse("--"));
+                UI.paintTile(i);
             }
+
+            highlighted.clear();
+        }
+    }
+
+    private static final void paintTile(final Integer i)
+    {
+        final JButton button = JButton.class.cast(board.getComponent(i));
+        button.setCursor(Cursor.getDefaultCursor());
+
+        if (game.get().getCurrentTurn().getPositionFrom().filter(i::equals).isPresent()) {
+            button.setBackground(Color.CYAN);
+        } else if (game.get().getCurrentTurn().getPositionTo().filter(i::equals).isPresent()) {
+            button.setBackground(Color.YELLOW);
+        } else switch (Math.floorMod(UI.getRow(i) + i, 2)) {
+            case 0:
+                button.setBackground(Color.WHITE);
+                break;
+            case 1:
+                button.setBackground(null);
+                break;
         }
     }
 
@@ -176,12 +197,14 @@ public final class UI extends JFrame
             stored.set(null);
             game.get().interrupt();
 
-            while(game.get().isAlive())
-            {
-                // Do NOTHING
+            try {
+                game.get().join();
+            } catch(final InterruptedException exception) {
+                Thread.currentThread().interrupt();
             }
 
             game.set(new Game("Chess", players));
+            game.get().setListener(UI::refreshBoard);
             game.get().start();
             UI.refreshBoard();
         }
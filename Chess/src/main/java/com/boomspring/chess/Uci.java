@@ -0,0 +1,307 @@
+package com.boomspring.chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public final class Uci
+{
+    private static final ImmutableMap<String, Pruning> SWITCHES = ImmutableMap.of("NullMove", Pruning.NULL_MOVE, "LateMoveReductions", Pruning.LATE_MOVE_REDUCTION, "Futility", Pruning.FUTILITY);
+
+    private final PrintStream out;
+    private final Set<Pruning> pruning = EnumSet.allOf(Pruning.class);
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("Timer").setDaemon(true).build());
+    private TranspositionTable table = new TranspositionTable(16);
+    private Search search;
+    private int threads = 1;
+    private Position position = new Position();
+    private volatile Thread worker;
+    private volatile boolean waiting;
+    private volatile long ponderMillis;
+
+    protected Uci(final PrintStream out)
+    {
+        this.out = out;
+    }
+
+    public static final void run(final String... args) throws IOException, InterruptedException
+    {
+        final Uci uci = new Uci(System.out);
+        final BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+
+        for (String line = in.readLine(); line != null; line = in.readLine())
+        {
+            if (!uci.execute(line.trim())) break;
+        }
+
+        uci.stop();
+    }
+
+    protected final boolean execute(final String line) throws InterruptedException
+    {
+        final List<String> words = Arrays.asList(line.split("\\s+"));
+
+        switch (words.get(0)) {
+            case "uci":
+                send("id name Boomspring Chess");
+                send("id author Boomspring");
+                send("option name Hash type spin default 16 min 1 max " + TranspositionTable.MAX_MEGABYTES);
+                send("option name Threads type spin default 1 min 1 max 256");
+                SWITCHES.keySet().forEach(name -> send("option name " + name + " type check default true"));
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "setoption":
+                stop();
+                setOption(words);
+                break;
+            case "ucinewgame":
+                stop();
+                table.clear();
+                break;
+            case "position":
+                stop();
+                setPosition(words);
+                break;
+            case "go":
+                stop();
+
+                try {
+                    go(words);
+                } catch (final NumberFormatException e) {
+                    // THE GUI STILL WAITS FOR AN ANSWER TO A GO IT GOT WRONG
+                    send("info string invalid go " + line);
+                    send("bestmove " + getFallback(position));
+                }
+
+                break;
+            case "stop":
+                stop();
+                break;
+            case "ponderhit":
+                ponderHit();
+                break;
+            case "d":
+                send("Fen: " + position.toFen());
+                break;
+            case "quit":
+                return false;
+            default:
+                if (!line.isEmpty()) send("info string unknown command " + line);
+        }
+
+        return true;
+    }
+
+    private final void setOption(final List<String> words)
+    {
+        // setoption name <NAME> value <VALUE>, WHERE THE NAME MAY CONTAIN SPACES
+        final int value = words.indexOf("value");
+        final String name = String.join(" ", words.subList(Math.min(2, words.size()), value < 0 ? words.size() : value));
+        final String setting = value < 0 ? "" : String.join(" ", words.subList(value + 1, words.size()));
+
+        try {
+            if (name.equalsIgnoreCase("Hash")) {
+                table = new TranspositionTable(Integer.parseInt(setting));
+                reset();
+            } else if (name.equalsIgnoreCase("Threads")) {
+                threads = Math.max(1, Integer.parseInt(setting));
+                reset();
+            } else if (SWITCHES.containsKey(name)) {
+                if (Boolean.parseBoolean(setting)) pruning.add(SWITCHES.get(name));
+                else pruning.remove(SWITCHES.get(name));
+                reset();
+            } else send("info string unknown option " + name);
+        } catch (final NumberFormatException e) {
+            send("info string invalid value " + setting);
+        }
+    }
+
+    private final void setPosition(final List<String> words)
+    {
+        final int moves = words.indexOf("moves");
+        final int end = moves < 0 ? words.size() : moves;
+
+        try {
+            Position current = words.size() > 1 && words.get(1).equals("fen") ? new Position(String.join(" ", words.subList(2, end))) : new Position();
+
+            for (final String name : moves < 0 ? words.subList(0, 0) : words.subList(moves + 1, words.size()))
+            {
+                current = current.play(parseMove(current, name));
+            }
+
+            position = current;
+        } catch (final IllegalArgumentException e) {
+            send("info string invalid position " + e.getMessage());
+        }
+    }
+
+    private final void go(final List<String> words)
+    {
+        final boolean white = position.getSide() == Colour.WHITE;
+        final boolean infinite = words.contains("infinite");
+        final boolean ponder = words.contains("ponder");
+        final int depth = getArgument(words, "depth", Node.MAX_PLY - 1);
+        final long moveTime = getArgument(words, "movetime", -1);
+        final long remaining = getArgument(words, white ? "wtime" : "btime", -1);
+        final long increment = getArgument(words, white ? "winc" : "binc", 0);
+        final int movesToGo = getArgument(words, "movestogo", 30);
+        final long millis = moveTime >= 0 ? moveTime : remaining >= 0 ? Search.allocate(remaining, increment, movesToGo) : Long.MAX_VALUE;
+
+        // A PONDERING SEARCH RUNS UNTIMED UNTIL PONDERHIT STARTS ITS CLOCK
+        final Position root = position;
+        final Search current = getSearch();
+
+        waiting = infinite || ponder;
+        ponderMillis = ponder ? millis : Long.MAX_VALUE;
+
+        current.setListener(this::sendInfo);
+        worker = new Thread(() -> {
+            try {
+                Node.Result result = null;
+
+                // A FAILED SEARCH STILL OWES THE GUI A BESTMOVE, OR IT WAITS FOREVER
+                try {
+                    result = current.search(root, depth, ponder ? Long.MAX_VALUE : millis);
+                } catch (final RuntimeException e) {
+                    send("info string search failed " + e);
+                }
+
+                synchronized (this)
+                {
+                    // UCI FORBIDS A BESTMOVE BEFORE STOP OR PONDERHIT IN THESE MODES
+                    while (waiting) wait();
+                }
+
+                sendBest(root, result);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "Search");
+        worker.start();
+    }
+
+    private final synchronized void ponderHit()
+    {
+        final long millis = ponderMillis;
+
+        waiting = false;
+        notifyAll();
+
+        if (millis != Long.MAX_VALUE && search != null)
+        {
+            final Search current = search;
+            final Thread target = worker;
+
+            // THE CLOCK MUST NOT STOP A LATER SEARCH IF THIS ONE ENDS ON ITS OWN
+            timer.schedule(() -> {
+                if (worker == target) current.stop();
+            }, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private final void stop() throws InterruptedException
+    {
+        if (worker == null) return;
+
+        synchronized (this)
+        {
+            waiting = false;
+            notifyAll();
+        }
+
+        // A STOP CAN ARRIVE BEFORE THE SEARCH HAS STARTED ITS NODES, SO KEEP ASKING
+        while (worker.isAlive())
+        {
+            search.stop();
+            worker.join(10);
+        }
+
+        worker = null;
+    }
+
+    private final void reset()
+    {
+        if (search != null) search.shutdown();
+        search = null;
+    }
+
+    private final Search getSearch()
+    {
+        if (search == null) search = new Search(table, threads, pruning);
+        return search;
+    }
+
+    private final void sendInfo(final Node.Result result, final long nodes, final long millis)
+    {
+        final String pv = result.getVariation().stream().map(Move::toString).collect(Collectors.joining(" "));
+        send(String.format("info depth %d score %s nodes %d nps %d time %d pv %s", result.getDepth(), getScore(result.getScore()), nodes, nodes * 1000 / Math.max(millis, 1), millis, pv));
+    }
+
+    private final void sendBest(final Position root, final Node.Result result)
+    {
+        final List<Integer> variation = result == null ? ImmutableList.<Integer>of() : result.getVariation();
+
+        if (!variation.isEmpty()) {
+            send("bestmove " + Move.toString(variation.get(0)) + (variation.size() > 1 ? " ponder " + Move.toString(variation.get(1)) : ""));
+        } else if (result != null && result.getMove() != 0) {
+            send("bestmove " + Move.toString(result.getMove()));
+        } else {
+            send("bestmove " + getFallback(root));
+        }
+    }
+
+    private static final String getFallback(final Position root)
+    {
+        try {
+            final int[] moves = new Board(root).getMoves();
+            return moves.length == 0 ? "0000" : Move.toString(moves[0]);
+        } catch (final RuntimeException e) {
+            return "0000";
+        }
+    }
+
+    private final synchronized void send(final String line)
+    {
+        out.println(line);
+        out.flush();
+    }
+
+    private static final String getScore(final int score)
+    {
+        // MATE SCORES COUNT PLIES, UCI COUNTS MOVES
+        if (Math.abs(score) <= Node.MATE - Node.MAX_PLY) return "cp " + score;
+        return "mate " + (score > 0 ? (Node.MATE - score + 1) / 2 : -(Node.MATE + score) / 2);
+    }
+
+    private static final int parseMove(final Position position, final String name)
+    {
+        for (final int move : new Board(position).getMoves())
+        {
+            if (Move.toString(move).equals(name)) return move;
+        }
+
+        throw new IllegalArgumentException(name);
+    }
+
+    private static final int getArgument(final List<String> words, final String name, final int fallback)
+    {
+        final int index = words.indexOf(name);
+        return index < 0 || index + 1 >= words.size() ? fallback : Integer.parseInt(words.get(index + 1));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.boomspring.chess;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public final class Zobrist
+{
+    private static final Random random = new Random(0x5DEECE66DL);
+    private static final long[][] PIECES = IntStream.range(0, 12).mapToObj(i -> random.longs(64).toArray()).toArray(long[][]::new);
+    private static final long[] CASTLING = random.longs(16).toArray();
+    private static final long[] EN_PASSANT = random.longs(8).toArray();
+    private static final long SIDE = random.nextLong();
+
+    private Zobrist()
+    {
+    }
+
+    protected static final long getPiece(final int code, final int square)
+    {
+        return PIECES[code][square];
+    }
+
+    protected static final long getCastling(final int castling)
+    {
+        return CASTLING[castling];
+    }
+
+    protected static final long getEnPassant(final int square)
+    {
+        return square == Position.EMPTY ? 0 : EN_PASSANT[square % 8];
+    }
+
+    protected static final long getSide()
+    {
+        return SIDE;
+    }
+}
\ No newline at end of file